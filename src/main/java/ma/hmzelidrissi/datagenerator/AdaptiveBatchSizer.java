@@ -0,0 +1,135 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Picks the JDBC batch size of every table from the measured batch latency and throughput.
+ * <p>
+ * Each table starts at the initial size and doubles it after every window of batches that improved
+ * throughput by more than {@value #MIN_GAIN_PERCENT}%. Once a step stops paying off, it settles on
+ * the best size seen. A window whose average latency exceeds the target halves the size at any
+ * point, so wide rows never pile up into multi-second transactions.
+ * <p>
+ * A settled size is not final: after {@value #REPROBE_WINDOWS} windows within the target, probing
+ * starts again from the current size, so a single stall (a checkpoint, autovacuum) does not shrink
+ * the batches for the rest of the run.
+ */
+public class AdaptiveBatchSizer {
+
+    static final int WINDOW_BATCHES = 5;
+    static final int REPROBE_WINDOWS = 20;
+    private static final int MIN_GAIN_PERCENT = 5;
+
+    private final int initialSize;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetLatencyNanos;
+    private final Map<Table, TableState> states = new EnumMap<>(Table.class);
+
+    public AdaptiveBatchSizer(int initialSize, int minSize, int maxSize, Duration targetLatency) {
+        if (minSize < 1 || minSize > initialSize || initialSize > maxSize) {
+            throw new IllegalArgumentException("Batch sizes must satisfy 1 <= min <= initial <= max, got "
+                    + minSize + ", " + initialSize + ", " + maxSize);
+        }
+        this.initialSize = initialSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    public int batchSize(Table table) {
+        return state(table).size;
+    }
+
+    /**
+     * Records one executed batch (including its commit) and possibly moves the batch size.
+     */
+    public void record(Table table, int rows, long nanos) {
+        TableState state = state(table);
+        state.totalRows += rows;
+        state.totalNanos += nanos;
+        state.totalBatches++;
+        state.windowRows += rows;
+        state.windowNanos += nanos;
+
+        if (++state.windowBatches == WINDOW_BATCHES) {
+            adjust(state);
+            state.windowRows = 0;
+            state.windowNanos = 0;
+            state.windowBatches = 0;
+        }
+    }
+
+    /**
+     * {@code bestThroughput} is always the throughput measured at {@code bestSize}, and is cleared
+     * whenever that size is abandoned.
+     */
+    private void adjust(TableState state) {
+        double throughput = state.windowRows * 1_000_000_000d / state.windowNanos;
+        long latency = state.windowNanos / state.windowBatches;
+
+        if (latency > targetLatencyNanos) {
+            state.size = Math.max(minSize, state.size / 2);
+            state.bestSize = state.size;
+            state.bestThroughput = 0;
+            state.probing = false;
+            state.steadyWindows = 0;
+        } else if (state.probing) {
+            if (throughput > state.bestThroughput * (100 + MIN_GAIN_PERCENT) / 100) {
+                state.bestThroughput = throughput;
+                state.bestSize = state.size;
+                if (state.size == maxSize) {
+                    state.probing = false;
+                } else {
+                    state.size = Math.min(maxSize, state.size * 2);
+                }
+            } else {
+                state.size = state.bestSize;
+                state.probing = false;
+            }
+        } else if (++state.steadyWindows >= REPROBE_WINDOWS) {
+            // the next window measures the current size afresh, then probing doubles from there
+            state.bestSize = state.size;
+            state.bestThroughput = 0;
+            state.probing = true;
+            state.steadyWindows = 0;
+        }
+        state.peakSize = Math.max(state.peakSize, state.size);
+    }
+
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        states.forEach((table, state) -> lines.add(String.format(Locale.ROOT,
+                "%-12s batch size %,7d (peak %,d) %,10d batches %8.1f ms/batch %,12.0f rows/s",
+                table.tableName(), state.size, state.peakSize, state.totalBatches,
+                state.totalBatches == 0 ? 0 : state.totalNanos / 1e6 / state.totalBatches,
+                state.totalNanos == 0 ? 0 : state.totalRows * 1e9 / state.totalNanos)));
+        return lines;
+    }
+
+    private TableState state(Table table) {
+        return states.computeIfAbsent(table, key -> new TableState(initialSize));
+    }
+
+    private static final class TableState {
+        int size;
+        int bestSize;
+        int peakSize;
+        double bestThroughput;
+        boolean probing = true;
+        int steadyWindows;
+        long totalRows;
+        long totalNanos;
+        long totalBatches;
+        long windowRows;
+        long windowNanos;
+        int windowBatches;
+
+        TableState(int size) {
+            this.size = size;
+            this.bestSize = size;
+            this.peakSize = size;
+        }
+    }
+}
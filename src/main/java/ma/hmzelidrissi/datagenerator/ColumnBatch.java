@@ -0,0 +1,255 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.enums.*;
+import ma.hmzelidrissi.datagenerator.stream.*;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Reusable column-oriented buffer for one JDBC batch of a table. Rows are copied from a
+ * {@link RowCursor} into primitive arrays (money in cents, dates in epoch days, enums as dictionary
+ * codes) that are allocated once at the largest batch size, so filling a batch creates no objects
+ * per row and binding passes the driver primitives. The insert statements turn cents and days back
+ * into NUMERIC and DATE values.
+ */
+abstract class ColumnBatch<C extends RowCursor> implements BatchPreparedStatementSetter {
+
+    protected final int capacity;
+    protected int size;
+
+    ColumnBatch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends the current row of the cursor.
+     */
+    void add(C cursor) {
+        if (size == capacity) {
+            throw new IllegalStateException("Column batch is full at " + capacity + " rows");
+        }
+        set(size++, cursor);
+    }
+
+    abstract void set(int row, C cursor);
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return size;
+    }
+
+    /**
+     * Names of the enum constants by ordinal, bound in place of the dictionary codes.
+     */
+    static String[] names(Enum<?>[] values) {
+        String[] names = new String[values.length];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name();
+        }
+        return names;
+    }
+
+    static final class Users extends ColumnBatch<UserCursor> {
+
+        static final String INSERT =
+                "INSERT INTO users (name, email, password, age, monthly_income, credit_score, role) VALUES (?, ?, ?, ?, ? * 0.01, ?, ?)";
+
+        private static final String[] ROLES = names(Role.values());
+
+        private final String[] name;
+        private final String[] email;
+        private final String[] password;
+        private final int[] age;
+        private final long[] monthlyIncomeCents;
+        private final int[] creditScore;
+        private final byte[] role;
+
+        Users(int capacity) {
+            super(capacity);
+            name = new String[capacity];
+            email = new String[capacity];
+            password = new String[capacity];
+            age = new int[capacity];
+            monthlyIncomeCents = new long[capacity];
+            creditScore = new int[capacity];
+            role = new byte[capacity];
+        }
+
+        @Override
+        void set(int row, UserCursor user) {
+            name[row] = user.name();
+            email[row] = user.email();
+            password[row] = user.password();
+            age[row] = user.age();
+            monthlyIncomeCents[row] = user.monthlyIncomeCents();
+            creditScore[row] = user.creditScore();
+            role[row] = (byte) user.role().ordinal();
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setString(1, name[i]);
+            ps.setString(2, email[i]);
+            ps.setString(3, password[i]);
+            ps.setInt(4, age[i]);
+            ps.setLong(5, monthlyIncomeCents[i]);
+            ps.setInt(6, creditScore[i]);
+            ps.setString(7, ROLES[role[i]]);
+        }
+    }
+
+    static final class Accounts extends ColumnBatch<AccountCursor> {
+
+        static final String INSERT =
+                "INSERT INTO accounts (balance, status, user_id) VALUES (? * 0.01, ?, ?)";
+
+        private static final String[] STATUSES = names(AccountStatus.values());
+
+        private final long[] balanceCents;
+        private final byte[] status;
+        private final long[] userId;
+
+        Accounts(int capacity) {
+            super(capacity);
+            balanceCents = new long[capacity];
+            status = new byte[capacity];
+            userId = new long[capacity];
+        }
+
+        @Override
+        void set(int row, AccountCursor account) {
+            balanceCents[row] = account.balanceCents();
+            status[row] = (byte) account.status().ordinal();
+            userId[row] = account.userId();
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, balanceCents[i]);
+            ps.setString(2, STATUSES[status[i]]);
+            ps.setLong(3, userId[i]);
+        }
+    }
+
+    static final class Transactions extends ColumnBatch<TransactionCursor> {
+
+        static final String INSERT =
+                "INSERT INTO transactions (type, amount, source_account_id, destination_account_id, status) VALUES (?, ? * 0.01, ?, ?, ?)";
+
+        private static final String[] TYPES = names(TransactionType.values());
+        private static final String[] STATUSES = names(TransactionStatus.values());
+
+        private final byte[] type;
+        private final long[] amountCents;
+        private final long[] sourceAccountId;
+        private final long[] destinationAccountId;
+        private final byte[] status;
+
+        Transactions(int capacity) {
+            super(capacity);
+            type = new byte[capacity];
+            amountCents = new long[capacity];
+            sourceAccountId = new long[capacity];
+            destinationAccountId = new long[capacity];
+            status = new byte[capacity];
+        }
+
+        @Override
+        void set(int row, TransactionCursor transaction) {
+            type[row] = (byte) transaction.type().ordinal();
+            amountCents[row] = transaction.amountCents();
+            sourceAccountId[row] = transaction.sourceAccountId();
+            destinationAccountId[row] = transaction.destinationAccountId();
+            status[row] = (byte) transaction.status().ordinal();
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setString(1, TYPES[type[i]]);
+            ps.setLong(2, amountCents[i]);
+            ps.setLong(3, sourceAccountId[i]);
+            ps.setLong(4, destinationAccountId[i]);
+            ps.setString(5, STATUSES[status[i]]);
+        }
+    }
+
+    static final class Invoices extends ColumnBatch<InvoiceCursor> {
+
+        static final String INSERT =
+                "INSERT INTO invoices (amount_due, due_date, user_id) VALUES (? * 0.01, DATE '1970-01-01' + ?, ?)";
+
+        private final long[] amountDueCents;
+        private final int[] dueDateEpochDay;
+        private final long[] userId;
+
+        Invoices(int capacity) {
+            super(capacity);
+            amountDueCents = new long[capacity];
+            dueDateEpochDay = new int[capacity];
+            userId = new long[capacity];
+        }
+
+        @Override
+        void set(int row, InvoiceCursor invoice) {
+            amountDueCents[row] = invoice.amountDueCents();
+            dueDateEpochDay[row] = Math.toIntExact(invoice.dueDateEpochDay());
+            userId[row] = invoice.userId();
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, amountDueCents[i]);
+            ps.setInt(2, dueDateEpochDay[i]);
+            ps.setLong(3, userId[i]);
+        }
+    }
+
+    static final class Loans extends ColumnBatch<LoanCursor> {
+
+        static final String INSERT =
+                "INSERT INTO loans (principal, interest_rate, term_months, user_id, approved) VALUES (? * 0.01, ? * 0.01, ?, ?, ?)";
+
+        private final long[] principalCents;
+        private final long[] interestRateCents;
+        private final int[] termMonths;
+        private final long[] userId;
+        private final boolean[] approved;
+
+        Loans(int capacity) {
+            super(capacity);
+            principalCents = new long[capacity];
+            interestRateCents = new long[capacity];
+            termMonths = new int[capacity];
+            userId = new long[capacity];
+            approved = new boolean[capacity];
+        }
+
+        @Override
+        void set(int row, LoanCursor loan) {
+            principalCents[row] = loan.principalCents();
+            interestRateCents[row] = loan.interestRateCents();
+            termMonths[row] = loan.termMonths();
+            userId[row] = loan.userId();
+            approved[row] = loan.approved();
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, principalCents[i]);
+            ps.setLong(2, interestRateCents[i]);
+            ps.setInt(3, termMonths[i]);
+            ps.setLong(4, userId[i]);
+            ps.setBoolean(5, approved[i]);
+        }
+    }
+}
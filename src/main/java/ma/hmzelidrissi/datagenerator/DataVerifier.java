@@ -0,0 +1,116 @@
+package ma.hmzelidrissi.datagenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Checks a loaded database against the digests written by a generator. Every range of the manifest
+ * is recomputed with its own range query on the primary key, and the queries run in parallel.
+ * <p>
+ * Foreign keys are part of the row hashes, so matching digests also prove there are no orphaned
+ * references.
+ */
+@Service(DataVerifier.JOB_NAME)
+@Lazy
+@Slf4j
+@RequiredArgsConstructor
+public class DataVerifier implements GenerationJob {
+
+    public static final String JOB_NAME = "verify";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final VerifyJobSettings settings;
+
+    @Override
+    public void run() throws Exception {
+        log.info("Verifying database against {}...", settings.manifestFile());
+        long startTime = System.currentTimeMillis();
+
+        List<DigestRange> expected = DigestManifest.read(settings.manifestFile());
+        List<String> differences = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+        try {
+            List<Future<DigestRange>> actual = new ArrayList<>();
+            for (DigestRange range : expected) {
+                actual.add(executor.submit(() -> queryRange(range)));
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                compare(expected.get(i), actual.get(i).get(), differences);
+            }
+            checkUnexpectedRows(expected, differences);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Verification query failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long endTime = System.currentTimeMillis();
+        if (!differences.isEmpty()) {
+            differences.forEach(log::error);
+            throw new IllegalStateException("Verification failed: " + differences.size() + " of "
+                    + expected.size() + " ranges differ");
+        }
+        log.info("Verified {} ranges in {} seconds, all match", expected.size(), (endTime - startTime) / 1000);
+    }
+
+    private DigestRange queryRange(DigestRange range) {
+        String sql = "SELECT count(*) AS row_count, "
+                + "coalesce(sum(('x' || left(md5(concat_ws('|', " + digestColumns(range.table()) + ")), 16))::bit(64)::bigint), 0) AS hash "
+                + "FROM " + range.table().tableName() + " WHERE id BETWEEN ? AND ?";
+
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new DigestRange(range.table(),
+                range.firstId(), range.lastId(), rs.getLong("row_count"),
+                // the sum is a numeric; its low 64 bits are the wrapped-around sum of the generator
+                rs.getBigDecimal("hash").toBigInteger().longValue()), range.firstId(), range.lastId());
+    }
+
+    static void compare(DigestRange expected, DigestRange actual, List<String> differences) {
+        if (expected.rows() != actual.rows() || expected.hash() != actual.hash()) {
+            differences.add(String.format(Locale.ROOT,
+                    "%s ids %d-%d: expected %d rows (hash %016x), found %d rows (hash %016x)",
+                    expected.table().tableName(), expected.firstId(), expected.lastId(),
+                    expected.rows(), expected.hash(), actual.rows(), actual.hash()));
+        }
+    }
+
+    /**
+     * Rows whose id is outside every range of the manifest, e.g. left over from an earlier load.
+     */
+    private void checkUnexpectedRows(List<DigestRange> expected, List<String> differences) {
+        Map<Table, Long> lastIds = new EnumMap<>(Table.class);
+        for (DigestRange range : expected) {
+            lastIds.merge(range.table(), range.lastId(), Math::max);
+        }
+        lastIds.forEach((table, lastId) -> {
+            Long extra = jdbcTemplate.queryForObject(
+                    "SELECT (SELECT count(*) FROM " + table.tableName() + " WHERE id > ?)"
+                            + " + (SELECT count(*) FROM " + table.tableName() + " WHERE id < 1)",
+                    Long.class, lastId);
+            if (extra != null && extra > 0) {
+                differences.add(String.format(Locale.ROOT, "%s: %d rows with ids outside 1-%d",
+                        table.tableName(), extra, lastId));
+            }
+        });
+    }
+
+    /**
+     * Columns in the order {@link DigestManifest} hashes them, rendered the way Java prints the values.
+     */
+    private static String digestColumns(Table table) {
+        return switch (table) {
+            case USERS -> "id, name, email, password, age, monthly_income, credit_score, role";
+            case ACCOUNTS -> "id, balance, status, user_id";
+            case TRANSACTIONS -> "id, type, amount, source_account_id, destination_account_id, status";
+            case INVOICES -> "id, amount_due, to_char(due_date, 'YYYY-MM-DD'), user_id";
+            case LOANS -> "id, principal, interest_rate, term_months, user_id, approved::text";
+        };
+    }
+}
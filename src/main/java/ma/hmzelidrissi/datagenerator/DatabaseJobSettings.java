@@ -0,0 +1,14 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the {@code db} job, configured through the {@code generator.db.batch.*} and
+ * {@code generator.verify.*} properties.
+ *
+ * @param manifestFile where the digests of the generated rows are written for the {@code verify} job
+ */
+public record DatabaseJobSettings(int initialBatchSize, int minBatchSize, int maxBatchSize,
+                                  Duration targetBatchLatency, Path manifestFile, int digestRangeSize) {
+}
@@ -0,0 +1,49 @@
+package ma.hmzelidrissi.datagenerator;
+
+/**
+ * Cardinalities of a generated dataset, configured through the {@code generator.size.*} properties.
+ */
+public record DatasetSize(int users, int accountsPerUser, int transactionsPerAccount, int invoicesPerUser,
+                          int loansPerUser) {
+
+    public long accounts() {
+        return (long) users * accountsPerUser;
+    }
+
+    public long transactions() {
+        return accounts() * transactionsPerAccount;
+    }
+
+    public long invoices() {
+        return (long) users * invoicesPerUser;
+    }
+
+    public long loans() {
+        return (long) users * loansPerUser;
+    }
+
+    public long rows(Table table) {
+        return switch (table) {
+            case USERS -> users;
+            case ACCOUNTS -> accounts();
+            case TRANSACTIONS -> transactions();
+            case INVOICES -> invoices();
+            case LOANS -> loans();
+        };
+    }
+
+    public long totalRows() {
+        long total = 0;
+        for (Table table : Table.values()) {
+            total += rows(table);
+        }
+        return total;
+    }
+
+    /**
+     * The same per-user fan-out with a different number of users.
+     */
+    public DatasetSize withUsers(int users) {
+        return new DatasetSize(users, accountsPerUser, transactionsPerAccount, invoicesPerUser, loansPerUser);
+    }
+}
@@ -0,0 +1,127 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.model.*;
+import ma.hmzelidrissi.datagenerator.stream.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * The digests of every table of one generated dataset, saved next to the output so the load can be
+ * verified later, possibly by another invocation.
+ * <p>
+ * The file is tab separated: table, first id, last id, row count, hash sum.
+ */
+public class DigestManifest {
+
+    private final Map<Table, TableDigest> tables = new EnumMap<>(Table.class);
+
+    public DigestManifest(DatasetSize size, int rangeSize) {
+        for (Table table : Table.values()) {
+            tables.put(table, new TableDigest(table, size.rows(table), rangeSize));
+        }
+    }
+
+    public TableDigest table(Table table) {
+        return tables.get(table);
+    }
+
+    // column order must match DataVerifier.digestColumns
+
+    public void add(UserCursor user) {
+        tables.get(Table.USERS).row(user.id()).column(user.name()).column(user.email()).column(user.password())
+                .column(user.age()).cents(user.monthlyIncomeCents()).column(user.creditScore())
+                .column(user.role()).end();
+    }
+
+    public void add(AccountCursor account) {
+        tables.get(Table.ACCOUNTS).row(account.id()).cents(account.balanceCents()).column(account.status())
+                .column(account.userId()).end();
+    }
+
+    public void add(TransactionCursor transaction) {
+        tables.get(Table.TRANSACTIONS).row(transaction.id()).column(transaction.type())
+                .cents(transaction.amountCents()).column(transaction.sourceAccountId())
+                .column(transaction.destinationAccountId()).column(transaction.status()).end();
+    }
+
+    public void add(InvoiceCursor invoice) {
+        tables.get(Table.INVOICES).row(invoice.id()).cents(invoice.amountDueCents())
+                .date(invoice.dueDateEpochDay()).column(invoice.userId()).end();
+    }
+
+    public void add(LoanCursor loan) {
+        tables.get(Table.LOANS).row(loan.id()).cents(loan.principalCents()).cents(loan.interestRateCents())
+                .column(loan.termMonths()).column(loan.userId()).column(loan.approved()).end();
+    }
+
+    public void add(User user) {
+        tables.get(Table.USERS).row(user.id()).column(user.name()).column(user.email()).column(user.password())
+                .column(user.age()).cents(cents(user.monthlyIncome())).column(user.creditScore())
+                .column(user.role()).end();
+    }
+
+    public void add(Account account) {
+        tables.get(Table.ACCOUNTS).row(account.id()).cents(cents(account.balance())).column(account.status())
+                .column(account.userId()).end();
+    }
+
+    public void add(Transaction transaction) {
+        tables.get(Table.TRANSACTIONS).row(transaction.id()).column(transaction.type())
+                .cents(cents(transaction.amount())).column(transaction.sourceAccountId())
+                .column(transaction.destinationAccountId()).column(transaction.status()).end();
+    }
+
+    public void add(Invoice invoice) {
+        tables.get(Table.INVOICES).row(invoice.id()).cents(cents(invoice.amountDue()))
+                .date(invoice.dueDate().toEpochDay()).column(invoice.userId()).end();
+    }
+
+    public void add(Loan loan) {
+        tables.get(Table.LOANS).row(loan.id()).cents(cents(loan.principal())).cents(cents(loan.interestRate()))
+                .column(loan.termMonths()).column(loan.userId()).column(loan.approved()).end();
+    }
+
+    public void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# table\tfirst_id\tlast_id\trows\thash");
+            writer.newLine();
+            for (TableDigest digest : tables.values()) {
+                for (DigestRange range : digest.ranges()) {
+                    writer.write(range.table().tableName() + "\t" + range.firstId() + "\t" + range.lastId()
+                            + "\t" + range.rows() + "\t" + range.hash());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static List<DigestRange> read(Path file) throws IOException {
+        List<DigestRange> ranges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 5) {
+                    throw new IOException("Malformed digest line in " + file + ": " + line);
+                }
+                ranges.add(new DigestRange(Table.valueOf(fields[0].toUpperCase(Locale.ROOT)),
+                        Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                        Long.parseLong(fields[3]), Long.parseLong(fields[4])));
+            }
+        }
+        return ranges;
+    }
+}
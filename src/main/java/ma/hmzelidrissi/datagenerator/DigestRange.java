@@ -0,0 +1,8 @@
+package ma.hmzelidrissi.datagenerator;
+
+/**
+ * Order-independent digest of the rows of a table whose ids fall in {@code [firstId, lastId]}: the
+ * row count and the sum (modulo 2<sup>64</sup>) of the row hashes.
+ */
+public record DigestRange(Table table, long firstId, long lastId, long rows, long hash) {
+}
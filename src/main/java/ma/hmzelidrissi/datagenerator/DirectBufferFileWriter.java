@@ -0,0 +1,252 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.*;
+
+/**
+ * UTF-8 file writer that encodes into large direct buffers and hands full buffers to a background
+ * thread writing them through a {@link FileChannel}.
+ * <p>
+ * With two or more buffers the generating thread keeps encoding while the previous buffer is on its
+ * way to disk. It only blocks when every buffer is still being written, and that time is reported
+ * by {@link #stallNanos()}. Not thread-safe: a single thread is expected to write.
+ */
+public class DirectBufferFileWriter extends Writer {
+
+    public enum FsyncPolicy {
+        /** Leave it to the OS to write the page cache back. */
+        NEVER,
+        /** One fsync once all data is written. */
+        ON_CLOSE,
+        /** Data of every buffer is synced before the buffer is reused. */
+        EVERY_BUFFER
+    }
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsync;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ByteBuffer current;
+    private char pendingSurrogate;
+    private boolean hasPendingSurrogate;
+    private long bytesWritten;
+    private long stallNanos;
+    private volatile long ioNanos;
+    private volatile IOException failure;
+    private boolean closed;
+
+    public DirectBufferFileWriter(Path file, int bufferSize, int bufferCount, FsyncPolicy fsync) throws IOException {
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("At least 2 buffers are needed, got " + bufferCount);
+        }
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 1; i < bufferCount; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        this.current = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        encode(CharBuffer.wrap(cbuf, off, len));
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        encode(CharBuffer.wrap(str, off, off + len));
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        encode(CharBuffer.wrap(csq == null ? "null" : csq));
+        return this;
+    }
+
+    /**
+     * Hands the current buffer to the flusher and waits until everything written so far has reached
+     * the file channel.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        submitCurrent();
+        awaitFlusher();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (hasPendingSurrogate) {
+                hasPendingSurrogate = false;
+                encodeChunk(CharBuffer.wrap(new char[]{pendingSurrogate}), true);
+            }
+            submitCurrent();
+            awaitFlusher();
+            if (fsync != FsyncPolicy.NEVER && failure == null) {
+                long startTime = System.nanoTime();
+                channel.force(true);
+                ioNanos += System.nanoTime() - startTime;
+            }
+        } finally {
+            closed = true;
+            flusher.shutdown();
+            channel.close();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Bytes encoded so far, including those not yet written to the file.
+     */
+    public long bytesWritten() {
+        return bytesWritten + current.position();
+    }
+
+    /**
+     * Time the writing thread spent waiting for a free buffer, i.e. time generation was held back
+     * by the disk.
+     */
+    public long stallNanos() {
+        return stallNanos;
+    }
+
+    /**
+     * Time the flusher spent in channel writes and fsyncs.
+     */
+    public long ioNanos() {
+        return ioNanos;
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        ensureOpen();
+        // a surrogate pair split across two write calls is completed with the first char of this one
+        while (hasPendingSurrogate && chars.hasRemaining()) {
+            hasPendingSurrogate = false;
+            encodeChunk(CharBuffer.wrap(new char[]{pendingSurrogate, chars.get()}), false);
+        }
+        if (!hasPendingSurrogate) {
+            encodeChunk(chars, false);
+        }
+    }
+
+    private void encodeChunk(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, current, endOfInput);
+            if (result.isOverflow()) {
+                submitCurrent();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        if (chars.hasRemaining()) {
+            pendingSurrogate = chars.get();
+            hasPendingSurrogate = true;
+        }
+    }
+
+    private void submitCurrent() throws IOException {
+        checkFailure();
+        if (current.position() == 0) {
+            return;
+        }
+        ByteBuffer full = current;
+        bytesWritten += full.position();
+        full.flip();
+        flusher.execute(() -> drain(full));
+        current = takeFreeBuffer();
+    }
+
+    private ByteBuffer takeFreeBuffer() throws IOException {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        long startTime = System.nanoTime();
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free buffer");
+        } finally {
+            stallNanos += System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Runs on the flusher thread. The buffer always goes back to the free queue, even after a
+     * failure, so the writing thread never waits forever.
+     */
+    private void drain(ByteBuffer buffer) {
+        try {
+            if (failure == null) {
+                long startTime = System.nanoTime();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsync == FsyncPolicy.EVERY_BUFFER) {
+                    channel.force(false);
+                }
+                ioNanos += System.nanoTime() - startTime;
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            buffer.clear();
+            freeBuffers.add(buffer);
+        }
+    }
+
+    private void awaitFlusher() throws IOException {
+        long startTime = System.nanoTime();
+        try {
+            flusher.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for pending writes");
+        } catch (ExecutionException e) {
+            throw new IOException("File flusher failed", e.getCause());
+        } finally {
+            stallNanos += System.nanoTime() - startTime;
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Writing to file failed", failure);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+    }
+}
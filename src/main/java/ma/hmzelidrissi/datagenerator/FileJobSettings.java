@@ -0,0 +1,24 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the {@code file} job, configured through the {@code generator.output.*} properties.
+ * Invalid buffer settings are rejected when the job is looked up, before any job starts.
+ */
+public record FileJobSettings(Path outputFile, SqlDialect.Kind dialect, SQLFileGenerator.Format format,
+                              DataSize bufferSize, int bufferCount, DirectBufferFileWriter.FsyncPolicy fsync,
+                              int digestRangeSize) {
+
+    public FileJobSettings {
+        if (bufferSize.toBytes() < 1 || bufferSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "generator.output.buffer-size must be between 1B and 2GB, got " + bufferSize);
+        }
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("generator.output.buffers must be at least 2, got " + bufferCount);
+        }
+    }
+}
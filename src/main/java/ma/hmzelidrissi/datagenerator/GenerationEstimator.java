@@ -0,0 +1,108 @@
+package ma.hmzelidrissi.datagenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Dry run behind {@code --estimate}: every selected job generates a small sample through its real
+ * code path, and the measured bytes per row and rows per second are extrapolated to the configured
+ * {@link DatasetSize}.
+ * <p>
+ * Each job first generates an untimed sample of half the size, so the timed sample runs JIT compiled
+ * code like a long run does. The heap retained by the two samples separates the generator's fixed
+ * state (Faker's locale data, the password hash, ...) from what grows with the number of users, and
+ * only the latter is extrapolated.
+ * <p>
+ * Generation is single-threaded, so the duration assumes one writer per job and jobs running one
+ * after the other.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GenerationEstimator {
+
+    private static final long MIN_HEAP = 256L * 1024 * 1024;
+
+    private final DatasetSize datasetSize;
+
+    @Value("${generator.estimate.sample-users:10000}")
+    private int sampleUsers;
+
+    public void estimate(Map<String, GenerationJob> jobs) throws Exception {
+        DatasetSize sample = datasetSize.withUsers(Math.max(1, Math.min(sampleUsers, datasetSize.users())));
+        DatasetSize warmUp = sample.withUsers(Math.max(1, sample.users() / 2));
+        double totalSeconds = 0;
+
+        for (Map.Entry<String, GenerationJob> job : jobs.entrySet()) {
+            log.info("Warming up job '{}' with {} users (untimed)...", job.getKey(), warmUp.users());
+            TableMetrics warmUpMetrics = job.getValue().sample(warmUp);
+            if (warmUpMetrics == null) {
+                log.info("Job '{}' does not generate data, nothing to estimate", job.getKey());
+                continue;
+            }
+            log.info("Sampling job '{}' with {} users...", job.getKey(), sample.users());
+            TableMetrics metrics = job.getValue().sample(sample);
+            double retainedHeap = retainedHeap(warmUp.users(), warmUpMetrics.peakRetainedHeap(), sample.users(),
+                    metrics.peakRetainedHeap(), datasetSize.users());
+            totalSeconds += printPlan(job.getKey(), metrics, retainedHeap);
+        }
+
+        log.info("Estimated total duration: {}", TableMetrics.formatDuration(totalSeconds));
+    }
+
+    /**
+     * @return the extrapolated duration of the job in seconds
+     */
+    private double printPlan(String jobName, TableMetrics metrics, double retainedHeap) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Plan for job '%s' (%,d users, extrapolated from %,d):",
+                jobName, datasetSize.users(), metrics.size().users()));
+        lines.add(String.format(Locale.ROOT, "  %-12s %14s %10s %12s %12s %12s",
+                "table", "rows", "bytes/row", "rows/s", "size", "duration"));
+
+        double totalBytes = 0;
+        double totalSeconds = 0;
+        for (TableSample sample : metrics.samples()) {
+            long rows = datasetSize.rows(sample.table());
+            double bytes = sample.bytesPerRow() * rows;
+            double seconds = sample.rowsPerSecond() == 0 ? 0 : rows / sample.rowsPerSecond();
+            totalBytes += bytes;
+            totalSeconds += seconds;
+
+            lines.add(String.format(Locale.ROOT, "  %-12s %,14d %10.1f %,12.0f %12s %12s",
+                    sample.table().tableName(), rows, sample.bytesPerRow(), sample.rowsPerSecond(),
+                    TableMetrics.formatBytes(bytes), TableMetrics.formatDuration(seconds)));
+        }
+        lines.add(String.format(Locale.ROOT, "  %-12s %,14d %10s %12s %12s %12s",
+                "total", datasetSize.totalRows(), "", "", TableMetrics.formatBytes(totalBytes),
+                TableMetrics.formatDuration(totalSeconds)));
+
+        long suggestedHeap = Math.max(MIN_HEAP, (long) (2 * (metrics.heapBaseline() + retainedHeap)));
+        lines.add(String.format(Locale.ROOT, "  heap: %s retained by the generator, run with at least -Xmx%dm (current max %s)",
+                TableMetrics.formatBytes(retainedHeap), suggestedHeap / (1024 * 1024),
+                TableMetrics.formatBytes(Runtime.getRuntime().maxMemory())));
+
+        lines.forEach(log::info);
+        if (suggestedHeap > Runtime.getRuntime().maxMemory()) {
+            log.warn("Job '{}' is likely to run out of memory with the current -Xmx", jobName);
+        }
+        return totalSeconds;
+    }
+
+    /**
+     * The heap a job retains at {@code users}, given what it retained in a smaller and a larger sample:
+     * the growth between the two is taken as per user, the rest of the larger sample as fixed. GC noise
+     * can make the growth negative, which counts as none.
+     */
+    static double retainedHeap(int smallerUsers, long smallerRetained, int largerUsers, long largerRetained,
+                               int users) {
+        int extraUsers = largerUsers - smallerUsers;
+        double perUser = extraUsers <= 0 ? 0 : Math.max(0, (double) (largerRetained - smallerRetained) / extraUsers);
+        double fixed = Math.max(0, largerRetained - perUser * largerUsers);
+        return fixed + perUser * users;
+    }
+}
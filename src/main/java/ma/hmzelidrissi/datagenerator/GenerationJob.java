@@ -0,0 +1,22 @@
+package ma.hmzelidrissi.datagenerator;
+
+/**
+ * A named unit of work selectable from the command line or {@code generator.jobs}.
+ * <p>
+ * Implementations are registered as {@code @Lazy} beans whose bean name is the job name, so only
+ * the jobs that were actually requested get instantiated.
+ */
+public interface GenerationJob {
+
+    void run() throws Exception;
+
+    /**
+     * Produces a dataset of the given (small) size through the same code path as {@link #run()}
+     * and measures it, leaving no trace in the real output.
+     *
+     * @return the measurements, or {@code null} for jobs that do not produce data
+     */
+    default TableMetrics sample(DatasetSize size) throws Exception {
+        return null;
+    }
+}
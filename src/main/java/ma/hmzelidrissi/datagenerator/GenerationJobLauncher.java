@@ -0,0 +1,74 @@
+package ma.hmzelidrissi.datagenerator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Resolves the requested job names and runs each of them once, in order.
+ * <p>
+ * Job names come from the non-option command line arguments ({@code java -jar app.jar db file})
+ * and fall back to {@code generator.jobs}, then to the legacy {@code generator.type} property.
+ * With {@code --estimate} the jobs are only sampled and a sizing plan is printed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GenerationJobLauncher implements ApplicationRunner {
+
+    private final ApplicationContext context;
+    private final GenerationEstimator estimator;
+
+    @Value("${generator.jobs:${generator.type:db}}")
+    private List<String> configuredJobs;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> jobNames = resolveJobNames(args);
+        Map<String, GenerationJob> jobs = lookupJobs(jobNames);
+
+        if (args.containsOption("estimate")) {
+            estimator.estimate(jobs);
+            return;
+        }
+
+        for (Map.Entry<String, GenerationJob> job : jobs.entrySet()) {
+            log.info("Starting job '{}'", job.getKey());
+            long startTime = System.currentTimeMillis();
+            job.getValue().run();
+            log.info("Job '{}' finished in {} ms", job.getKey(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private List<String> resolveJobNames(ApplicationArguments args) {
+        List<String> names = args.getNonOptionArgs().isEmpty() ? configuredJobs : args.getNonOptionArgs();
+        return names.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(String::toLowerCase)
+                .toList();
+    }
+
+    /**
+     * Looks every job up before any of them runs, so a typo in the last job name fails the
+     * invocation immediately instead of after hours of generation.
+     */
+    private Map<String, GenerationJob> lookupJobs(List<String> jobNames) {
+        Set<String> available = new TreeSet<>(Arrays.asList(context.getBeanNamesForType(GenerationJob.class)));
+        Map<String, GenerationJob> jobs = new LinkedHashMap<>();
+
+        for (String name : jobNames) {
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Invalid job: " + name + ". Valid values are " + available);
+            }
+            jobs.putIfAbsent(name, context.getBean(name, GenerationJob.class));
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,7 @@
+package ma.hmzelidrissi.datagenerator;
+
+/**
+ * Random seed shared by every job of a run, configured through {@code generator.seed}.
+ */
+public record GenerationSeed(long value) {
+}
@@ -0,0 +1,66 @@
+package ma.hmzelidrissi.datagenerator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class GeneratorConfiguration {
+
+    @Bean
+    public DatasetSize datasetSize(@Value("${generator.size.users:3000000}") int users,
+                                   @Value("${generator.size.accounts-per-user:2}") int accountsPerUser,
+                                   @Value("${generator.size.transactions-per-account:6}") int transactionsPerAccount,
+                                   @Value("${generator.size.invoices-per-user:2}") int invoicesPerUser,
+                                   @Value("${generator.size.loans-per-user:2}") int loansPerUser) {
+        return new DatasetSize(users, accountsPerUser, transactionsPerAccount, invoicesPerUser, loansPerUser);
+    }
+
+    @Bean
+    public DatabaseJobSettings databaseJobSettings(
+            @Value("${generator.db.batch.initial-size:1000}") int initialBatchSize,
+            @Value("${generator.db.batch.min-size:100}") int minBatchSize,
+            @Value("${generator.db.batch.max-size:50000}") int maxBatchSize,
+            @Value("${generator.db.batch.target-latency:500ms}") Duration targetBatchLatency,
+            @Value("${generator.verify.manifest:digests.tsv}") String manifestFile,
+            @Value("${generator.verify.range-size:100000}") int digestRangeSize) {
+        return new DatabaseJobSettings(initialBatchSize, minBatchSize, maxBatchSize, targetBatchLatency,
+                Path.of(manifestFile), digestRangeSize);
+    }
+
+    @Bean
+    public FileJobSettings fileJobSettings(@Value("${generator.output.file}") String outputFile,
+                                           @Value("${generator.output.dialect:postgresql}") SqlDialect.Kind dialect,
+                                           @Value("${generator.output.format:inserts}") SQLFileGenerator.Format format,
+                                           @Value("${generator.output.buffer-size:8MB}") DataSize bufferSize,
+                                           @Value("${generator.output.buffers:3}") int bufferCount,
+                                           @Value("${generator.output.fsync:on-close}")
+                                           DirectBufferFileWriter.FsyncPolicy fsync,
+                                           @Value("${generator.verify.range-size:100000}") int digestRangeSize) {
+        return new FileJobSettings(Path.of(outputFile), dialect, format, bufferSize, bufferCount, fsync,
+                digestRangeSize);
+    }
+
+    @Bean
+    public VerifyJobSettings verifyJobSettings(@Value("${generator.verify.manifest:digests.tsv}") String manifestFile,
+                                               @Value("${generator.verify.threads:8}") int threads) {
+        return new VerifyJobSettings(Path.of(manifestFile), threads);
+    }
+
+    /**
+     * Resolved once so the db and file jobs of one run share it; without {@code generator.seed} every run picks
+     * a new one, logged so the run can be repeated.
+     */
+    @Bean
+    public GenerationSeed generationSeed(@Value("${generator.seed:#{null}}") Long seed) {
+        GenerationSeed generationSeed = new GenerationSeed(seed != null ? seed : System.nanoTime());
+        log.info("Generating with seed {}", generationSeed.value());
+        return generationSeed;
+    }
+}
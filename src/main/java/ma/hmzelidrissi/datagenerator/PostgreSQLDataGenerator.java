@@ -1,356 +1,169 @@
 package ma.hmzelidrissi.datagenerator;
 
-import com.github.javafaker.Faker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ma.hmzelidrissi.datagenerator.enums.*;
-import org.mindrot.jbcrypt.BCrypt;
-import org.springframework.boot.CommandLineRunner;
+import ma.hmzelidrissi.datagenerator.stream.BankingDataGenerator;
+import ma.hmzelidrissi.datagenerator.stream.RowCursor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.util.*;
-import java.sql.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
-@Service
+@Service(PostgreSQLDataGenerator.JOB_NAME)
+@Lazy
 @Slf4j
 @RequiredArgsConstructor
-public class PostgreSQLDataGenerator implements CommandLineRunner {
+public class PostgreSQLDataGenerator implements GenerationJob {
 
-    private final JdbcTemplate jdbcTemplate;
-    private final Faker faker = new Faker();
-    private final Random random = new Random();
+    public static final String JOB_NAME = "db";
+
+    private static final String SAMPLE_SCHEMA_PREFIX = "generator_estimate_";
 
-    private static final int TOTAL_USERS = 3_000_000; // 3 million
-    private static final int ACCOUNTS_PER_USER = 2; // 6 million accounts
-    private static final int TRANSACTIONS_PER_ACCOUNT = 6; // 36 million transactions
-    private static final int INVOICES_PER_USER = 2; // 6 million invoices
-    private static final int LOANS_PER_USER = 2; // 6 million loans
-    private static final int BATCH_SIZE = 1000;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatasetSize datasetSize;
+    private final GenerationSeed seed;
+    private final DatabaseJobSettings settings;
 
     private final PlatformTransactionManager transactionManager;
+    private final SqlDialect dialect = new PostgreSQLDialect();
 
     @Override
-    public void run(String... args) {
+    public void run() {
         log.info("Starting PostgreSQL direct data generation...");
         long startTime = System.currentTimeMillis();
 
-        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
-
         try {
             createTables();
 
-//            transactionTemplate.execute(status -> {
-//                try {
-                    List<Long> userIds = generateUsers();
-                    Map<Long, List<Long>> userAccounts = generateAccounts(userIds);
-                    generateTransactions(userAccounts);
-                    generateInvoices(userIds);
-                    generateLoans(userIds);
-//                    return null;
-//                } catch (Exception e) {
-//                    log.error("Error during data generation", e);
-//                    status.setRollbackOnly();
-//                    throw new RuntimeException("Failed to generate data", e);
-//                }
-//            });
+            TableMetrics metrics = TableMetrics.forRun(datasetSize);
+            AdaptiveBatchSizer batches = newBatchSizer();
+            DigestManifest digests = new DigestManifest(datasetSize, settings.digestRangeSize());
+            generateData(new BankingDataGenerator(datasetSize, seed.value()), metrics, batches, digests);
 
             createIndexes();
+            recordRelationSizes(metrics);
+            digests.write(settings.manifestFile());
 
             long endTime = System.currentTimeMillis();
+            metrics.summary().forEach(log::info);
+            batches.summary().forEach(log::info);
             log.info("Data generation completed in {} seconds", (endTime - startTime) / 1000);
+            log.info("Digests written to {}", settings.manifestFile());
         } catch (Exception e) {
             log.error("Error during data generation", e);
             throw new RuntimeException("Failed to generate data", e);
         }
     }
 
+    /**
+     * PostgreSQL DDL is transactional, so the sample is generated into a throwaway schema created
+     * inside a transaction that is rolled back afterwards. The schema is first on the search path,
+     * so the live tables are neither touched nor locked. All batches share one commit, so the
+     * measured throughput does not include the per-batch commit latency of a real run.
+     */
+    @Override
+    public TableMetrics sample(DatasetSize size) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
 
-    private void createTables() {
-        log.info("Creating tables...");
-        jdbcTemplate.execute("""
-            DROP TABLE IF EXISTS transactions CASCADE;
-            DROP TABLE IF EXISTS loans CASCADE;
-            DROP TABLE IF EXISTS invoices CASCADE;
-            DROP TABLE IF EXISTS accounts CASCADE;
-            DROP TABLE IF EXISTS users CASCADE;
-
-            CREATE TABLE users (
-                id BIGSERIAL PRIMARY KEY,
-                name VARCHAR(255) NOT NULL,
-                email VARCHAR(255) NOT NULL UNIQUE,
-                password VARCHAR(255) NOT NULL,
-                age INTEGER NOT NULL,
-                monthly_income NUMERIC(15,2) NOT NULL,
-                credit_score INTEGER NOT NULL,
-                role VARCHAR(20) NOT NULL
-            );
-
-            CREATE TABLE accounts (
-                id BIGSERIAL PRIMARY KEY,
-                balance NUMERIC(15,2) NOT NULL,
-                status VARCHAR(20) NOT NULL,
-                user_id BIGINT NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-
-            CREATE TABLE transactions (
-                id BIGSERIAL PRIMARY KEY,
-                type VARCHAR(20) NOT NULL,
-                amount NUMERIC(15,2) NOT NULL,
-                source_account_id BIGINT NOT NULL,
-                destination_account_id BIGINT NOT NULL,
-                status VARCHAR(20) NOT NULL,
-                FOREIGN KEY (source_account_id) REFERENCES accounts(id),
-                FOREIGN KEY (destination_account_id) REFERENCES accounts(id)
-            );
-
-            CREATE TABLE invoices (
-                id BIGSERIAL PRIMARY KEY,
-                amount_due NUMERIC(15,2) NOT NULL,
-                due_date DATE NOT NULL,
-                user_id BIGINT NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-
-            CREATE TABLE loans (
-                id BIGSERIAL PRIMARY KEY,
-                principal NUMERIC(15,2) NOT NULL,
-                interest_rate NUMERIC(5,2) NOT NULL,
-                term_months INTEGER NOT NULL,
-                user_id BIGINT NOT NULL,
-                approved BOOLEAN NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-        """);
-    }
-
-    private List<Long> generateUsers() {
-        log.info("Generating {} users...", TOTAL_USERS);
-        List<Long> userIds = new ArrayList<>();
-        List<Object[]> batchArgs = new ArrayList<>();
-        String hashedPassword = BCrypt.hashpw("password", BCrypt.gensalt());
-
-        for (long i = 1; i <= TOTAL_USERS; i++) {
-            userIds.add(i);
-            Object[] userData = new Object[]{
-                    faker.name().fullName(),
-                    faker.internet().emailAddress().replaceAll("@", i + "@"),
-                    hashedPassword,
-                    random.nextInt(18, 80),
-                    random.nextDouble() * 150000 + 30000,
-                    random.nextInt(300, 850),
-                    Role.values()[random.nextInt(Role.values().length)].toString()
-            };
-            batchArgs.add(userData);
-
-            if (batchArgs.size() >= BATCH_SIZE) {
-                jdbcTemplate.batchUpdate(
-                        "INSERT INTO users (name, email, password, age, monthly_income, credit_score, role) " +
-                                "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                        batchArgs
-                );
-                batchArgs.clear();
-                log.info("Generated {} users", i);
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            try {
+                String schema = SAMPLE_SCHEMA_PREFIX + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+                jdbcTemplate.execute("CREATE SCHEMA " + schema);
+                jdbcTemplate.execute("SET LOCAL search_path TO " + schema);
+                createTables();
+
+                TableMetrics metrics = TableMetrics.forSample(size);
+                generateData(new BankingDataGenerator(size, seed.value()), metrics, newBatchSizer(),
+                        new DigestManifest(size, settings.digestRangeSize()));
+
+                createIndexes();
+                recordRelationSizes(metrics);
+                return metrics;
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to sample data generation", e);
             }
-        }
-
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(
-                    "INSERT INTO users (name, email, password, age, monthly_income, credit_score, role) " +
-                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
-                    batchArgs
-            );
-        }
-
-        return userIds;
+        });
     }
 
-    private Map<Long, List<Long>> generateAccounts(List<Long> userIds) {
-        log.info("Generating accounts for {} users...", userIds.size());
-        Map<Long, List<Long>> userAccounts = new HashMap<>();
-        List<Object[]> batchArgs = new ArrayList<>();
-        int count = 0;
-        long accountId = 1;
-
-        for (Long userId : userIds) {
-            List<Long> accounts = new ArrayList<>();
-            for (int i = 0; i < ACCOUNTS_PER_USER; i++) {
-                accounts.add(accountId);
-
-                Object[] accountData = new Object[]{
-                        random.nextDouble() * 50000 + 1000,
-                        AccountStatus.values()[random.nextInt(AccountStatus.values().length)].toString(),
-                        userId
-                };
-                batchArgs.add(accountData);
-
-                if (++count >= BATCH_SIZE) {
-                    jdbcTemplate.batchUpdate(
-                            "INSERT INTO accounts (balance, status, user_id) VALUES (?, ?, ?)",
-                            batchArgs
-                    );
-                    batchArgs.clear();
-                    count = 0;
-                    log.info("Generated {} accounts", accountId);
-                }
-
-                accountId++;
-            }
-            userAccounts.put(userId, accounts);
-        }
-
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(
-                    "INSERT INTO accounts (balance, status, user_id) VALUES (?, ?, ?)",
-                    batchArgs
-            );
-        }
-
-        return userAccounts;
+    /**
+     * Ids are not inserted: on freshly created tables the BIGSERIAL columns hand out the same
+     * 1, 2, 3... the generator uses, and the sequences stay in line for later inserts.
+     * <p>
+     * Rows go from the generator's cursors into one reused {@link ColumnBatch} per table, so apart
+     * from the user strings nothing is allocated per row before the rows reach the JDBC driver.
+     */
+    private void generateData(BankingDataGenerator data, TableMetrics metrics, AdaptiveBatchSizer batches,
+                              DigestManifest digests) throws Exception {
+        int maxBatchSize = settings.maxBatchSize();
+        metrics.measure(Table.USERS, () -> insertRows(Table.USERS, ColumnBatch.Users.INSERT, data.userCursor(),
+                new ColumnBatch.Users(maxBatchSize), digests::add, batches));
+        metrics.measure(Table.ACCOUNTS, () -> insertRows(Table.ACCOUNTS, ColumnBatch.Accounts.INSERT,
+                data.accountCursor(), new ColumnBatch.Accounts(maxBatchSize), digests::add, batches));
+        metrics.measure(Table.TRANSACTIONS, () -> insertRows(Table.TRANSACTIONS, ColumnBatch.Transactions.INSERT,
+                data.transactionCursor(), new ColumnBatch.Transactions(maxBatchSize), digests::add, batches));
+        metrics.measure(Table.INVOICES, () -> insertRows(Table.INVOICES, ColumnBatch.Invoices.INSERT,
+                data.invoiceCursor(), new ColumnBatch.Invoices(maxBatchSize), digests::add, batches));
+        metrics.measure(Table.LOANS, () -> insertRows(Table.LOANS, ColumnBatch.Loans.INSERT, data.loanCursor(),
+                new ColumnBatch.Loans(maxBatchSize), digests::add, batches));
     }
 
-    private void generateTransactions(Map<Long, List<Long>> userAccounts) {
-        log.info("Generating transactions...");
-        List<Object[]> batchArgs = new ArrayList<>();
-        int count = 0;
-        long transactionId = 1;
-        List<Long> allAccountIds = userAccounts.values().stream().flatMap(List::stream).toList();
-
-        for (List<Long> accounts : userAccounts.values()) {
-            for (Long sourceAccountId : accounts) {
-                for (int i = 0; i < TRANSACTIONS_PER_ACCOUNT; i++) {
-                    Long destinationAccountId = allAccountIds.get(random.nextInt(allAccountIds.size()));
-                    while (destinationAccountId.equals(sourceAccountId)) {
-                        destinationAccountId = allAccountIds.get(random.nextInt(allAccountIds.size()));
-                    }
+    private <C extends RowCursor> void insertRows(Table table, String sql, C cursor, ColumnBatch<C> batch,
+                                                  Consumer<C> digest, AdaptiveBatchSizer batches) {
+        log.info("Generating {}...", table.tableName());
 
-                    Object[] transactionData = new Object[]{
-                            TransactionType.values()[random.nextInt(TransactionType.values().length)].toString(),
-                            random.nextDouble() * 1000 + 10,
-                            sourceAccountId,
-                            destinationAccountId,
-                            TransactionStatus.values()[random.nextInt(TransactionStatus.values().length)].toString()
-                    };
-                    batchArgs.add(transactionData);
+        while (cursor.next()) {
+            batch.add(cursor);
+            digest.accept(cursor);
 
-                    if (++count >= BATCH_SIZE) {
-                        jdbcTemplate.batchUpdate(
-                                "INSERT INTO transactions (type, amount, source_account_id, destination_account_id, status) " +
-                                        "VALUES (?, ?, ?, ?, ?)",
-                                batchArgs
-                        );
-                        batchArgs.clear();
-                        count = 0;
-                        log.info("Generated {} transactions", transactionId);
-                    }
-                    transactionId++;
-                }
+            if (batch.size() >= batches.batchSize(table)) {
+                insertBatch(table, sql, batch, batches);
+                log.info("Generated {} {}", cursor.id(), table.tableName());
             }
         }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(
-                    "INSERT INTO transactions (type, amount, source_account_id, destination_account_id, status) " +
-                            "VALUES (?, ?, ?, ?, ?)",
-                    batchArgs
-            );
+        if (batch.size() > 0) {
+            insertBatch(table, sql, batch, batches);
         }
     }
 
-    private void generateInvoices(List<Long> userIds) {
-        log.info("Generating invoices...");
-        List<Object[]> batchArgs = new ArrayList<>();
-        int count = 0;
-        long invoiceId = 1;
-
-        for (Long userId : userIds) {
-            for (int i = 0; i < INVOICES_PER_USER; i++) {
-                Object[] invoiceData = new Object[]{
-                        random.nextDouble() * 5000 + 100,
-                        Date.valueOf(LocalDate.now().plusDays(random.nextInt(365))),
-                        userId
-                };
-                batchArgs.add(invoiceData);
-
-                if (++count >= BATCH_SIZE) {
-                    jdbcTemplate.batchUpdate(
-                            "INSERT INTO invoices (amount_due, due_date, user_id) VALUES (?, ?, ?)",
-                            batchArgs
-                    );
-                    batchArgs.clear();
-                    count = 0;
-                    log.info("Generated {} invoices", invoiceId);
-                }
-                invoiceId++;
-            }
-        }
+    private AdaptiveBatchSizer newBatchSizer() {
+        return new AdaptiveBatchSizer(settings.initialBatchSize(), settings.minBatchSize(), settings.maxBatchSize(),
+                settings.targetBatchLatency());
+    }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(
-                    "INSERT INTO invoices (amount_due, due_date, user_id) VALUES (?, ?, ?)",
-                    batchArgs
-            );
+    /**
+     * Table sizes including indexes and TOAST, i.e. the database footprint of each table.
+     */
+    private void recordRelationSizes(TableMetrics metrics) {
+        for (Table table : Table.values()) {
+            Long bytes = jdbcTemplate.queryForObject(
+                    "SELECT pg_total_relation_size(?::regclass)", Long.class, table.tableName());
+            metrics.setBytes(table, bytes);
         }
     }
 
-    private void generateLoans(List<Long> userIds) {
-        log.info("Generating loans...");
-        List<Object[]> batchArgs = new ArrayList<>();
-        int count = 0;
-        long loanId = 1;
-
-        for (Long userId : userIds) {
-            for (int i = 0; i < LOANS_PER_USER; i++) {
-                Object[] loanData = new Object[]{
-                        random.nextDouble() * 500000 + 10000,
-                        random.nextDouble() * 15 + 5,
-                        random.nextInt(12, 360),
-                        userId,
-                        random.nextBoolean()
-                };
-                batchArgs.add(loanData);
-
-                if (++count >= BATCH_SIZE) {
-                    jdbcTemplate.batchUpdate(
-                            "INSERT INTO loans (principal, interest_rate, term_months, user_id, approved) " +
-                                    "VALUES (?, ?, ?, ?, ?)",
-                            batchArgs
-                    );
-                    batchArgs.clear();
-                    count = 0;
-                    log.info("Generated {} loans", loanId);
-                }
-                loanId++;
-            }
-        }
+    private void createTables() {
+        log.info("Creating tables...");
+        jdbcTemplate.execute(dialect.createTables());
+    }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(
-                    "INSERT INTO loans (principal, interest_rate, term_months, user_id, approved) " +
-                            "VALUES (?, ?, ?, ?, ?)",
-                    batchArgs
-            );
-        }
+    /**
+     * Executes and commits one batch, feeding its latency back into the batch sizer.
+     */
+    private void insertBatch(Table table, String sql, ColumnBatch<?> batch, AdaptiveBatchSizer batches) {
+        long startTime = System.nanoTime();
+        jdbcTemplate.batchUpdate(sql, batch);
+        batches.record(table, batch.size(), System.nanoTime() - startTime);
+        batch.clear();
     }
 
     private void createIndexes() {
         log.info("Creating indexes...");
-        jdbcTemplate.execute("""
-            CREATE INDEX idx_user_role ON users(role);
-            CREATE INDEX idx_account_status ON accounts(status);
-            CREATE INDEX idx_account_user ON accounts(user_id);
-            CREATE INDEX idx_transaction_status ON transactions(status);
-            CREATE INDEX idx_transaction_source ON transactions(source_account_id);
-            CREATE INDEX idx_transaction_dest ON transactions(destination_account_id);
-            CREATE INDEX idx_invoice_due_date ON invoices(due_date);
-            CREATE INDEX idx_invoice_user ON invoices(user_id);
-            CREATE INDEX idx_loan_user ON loans(user_id);
-            CREATE INDEX idx_loan_approved ON loans(approved);
-        """);
+        jdbcTemplate.execute(dialect.createIndexes());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.nio.file.Path;
+
+/**
+ * Bulk loads use psql's {@code \copy}, so a SQL file written with them must be run through psql.
+ */
+public class PostgreSQLDialect implements SqlDialect {
+
+    @Override
+    public String createTables() {
+        return """
+            DROP TABLE IF EXISTS transactions CASCADE;
+            DROP TABLE IF EXISTS loans CASCADE;
+            DROP TABLE IF EXISTS invoices CASCADE;
+            DROP TABLE IF EXISTS accounts CASCADE;
+            DROP TABLE IF EXISTS users CASCADE;
+
+            CREATE TABLE users (
+                id BIGSERIAL PRIMARY KEY,
+                name VARCHAR(255) NOT NULL,
+                email VARCHAR(255) NOT NULL UNIQUE,
+                password VARCHAR(255) NOT NULL,
+                age INTEGER NOT NULL,
+                monthly_income NUMERIC(15,2) NOT NULL,
+                credit_score INTEGER NOT NULL,
+                role VARCHAR(20) NOT NULL
+            );
+
+            CREATE TABLE accounts (
+                id BIGSERIAL PRIMARY KEY,
+                balance NUMERIC(15,2) NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                user_id BIGINT NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(id)
+            );
+
+            CREATE TABLE transactions (
+                id BIGSERIAL PRIMARY KEY,
+                type VARCHAR(20) NOT NULL,
+                amount NUMERIC(15,2) NOT NULL,
+                source_account_id BIGINT NOT NULL,
+                destination_account_id BIGINT NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                FOREIGN KEY (source_account_id) REFERENCES accounts(id),
+                FOREIGN KEY (destination_account_id) REFERENCES accounts(id)
+            );
+
+            CREATE TABLE invoices (
+                id BIGSERIAL PRIMARY KEY,
+                amount_due NUMERIC(15,2) NOT NULL,
+                due_date DATE NOT NULL,
+                user_id BIGINT NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(id)
+            );
+
+            CREATE TABLE loans (
+                id BIGSERIAL PRIMARY KEY,
+                principal NUMERIC(15,2) NOT NULL,
+                interest_rate NUMERIC(5,2) NOT NULL,
+                term_months INTEGER NOT NULL,
+                user_id BIGINT NOT NULL,
+                approved BOOLEAN NOT NULL,
+                FOREIGN KEY (user_id) REFERENCES users(id)
+            );
+            """;
+    }
+
+    @Override
+    public String createIndexes() {
+        return """
+            CREATE INDEX idx_user_role ON users(role);
+            CREATE INDEX idx_account_status ON accounts(status);
+            CREATE INDEX idx_account_user ON accounts(user_id);
+            CREATE INDEX idx_transaction_status ON transactions(status);
+            CREATE INDEX idx_transaction_source ON transactions(source_account_id);
+            CREATE INDEX idx_transaction_dest ON transactions(destination_account_id);
+            CREATE INDEX idx_invoice_due_date ON invoices(due_date);
+            CREATE INDEX idx_invoice_user ON invoices(user_id);
+            CREATE INDEX idx_loan_user ON loans(user_id);
+            CREATE INDEX idx_loan_approved ON loans(approved);
+            """;
+    }
+
+    /**
+     * Assumes {@code standard_conforming_strings}, the default since PostgreSQL 9.1.
+     */
+    @Override
+    public String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    @Override
+    public String quoteIdentifier(String name) {
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * {@code \copy} takes the rest of the line, so the statement has no terminating semicolon.
+     */
+    @Override
+    public String bulkLoad(Table table, Path dataFile) {
+        return "\\copy " + quoteIdentifier(table.tableName()) + " (" + columns(table) + ") FROM "
+                + quote(dataFile.toString()) + "\n";
+    }
+}
@@ -1,412 +1,439 @@
 package ma.hmzelidrissi.datagenerator;
 
-import ma.hmzelidrissi.datagenerator.enums.*;
-import com.github.javafaker.Faker;
-import org.mindrot.jbcrypt.BCrypt;
+import ma.hmzelidrissi.datagenerator.stream.BankingDataGenerator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.math.BigDecimal;
 import java.nio.file.*;
-import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
-@Service
+@Service(SQLFileGenerator.JOB_NAME)
+@Lazy
 @Slf4j
-public class SQLFileGenerator implements CommandLineRunner {
-
-  private final Faker faker = new Faker();
-  private final Random random = new Random();
-
-  @Value("${generator.output.file}")
-  private String OUTPUT_FILE;
+@RequiredArgsConstructor
+public class SQLFileGenerator implements GenerationJob {
+
+  public static final String JOB_NAME = "file";
+
+  private final DatasetSize datasetSize;
+  private final GenerationSeed seed;
+  private final FileJobSettings settings;
+
+  /** How the rows get into the SQL file. */
+  public enum Format {
+    /** One INSERT statement per row. */
+    INSERTS,
+    /**
+     * One tab separated data file per table, written next to the SQL file as {@code
+     * <file>.<table>.tsv} and bulk loaded by it.
+     */
+    LOAD
+  }
 
-  private static final int TOTAL_USERS = 3_000_000;
-  private static final int ACCOUNTS_PER_USER = 2;
-  private static final int TRANSACTIONS_PER_ACCOUNT = 6;
-  private static final int INVOICES_PER_USER = 2;
-  private static final int LOANS_PER_USER = 2;
   private static final int BATCH_SIZE = 1000;
+  private static final String DIGESTS_SUFFIX = ".digests.tsv";
   private static final String NEW_LINE = System.getProperty("line.separator");
 
   @Override
-  public void run(String... args) throws Exception {
-    log.info("Starting SQL file generation...");
+  public void run() throws Exception {
+    log.info(
+        "Starting SQL file generation for {} ({})...", settings.dialect(), settings.format());
     long startTime = System.currentTimeMillis();
 
-    generateSQLFile();
+    TableMetrics metrics = generateSQLFile(settings.outputFile(), datasetSize, false);
 
     long endTime = System.currentTimeMillis();
+    metrics.summary().forEach(log::info);
     log.info("SQL file generation completed in {} seconds", (endTime - startTime) / 1000);
-    log.info("SQL file generated: {}", OUTPUT_FILE);
-  }
-
-  private void generateSQLFile() {
-    try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(OUTPUT_FILE))) {
-      writeSchemaCreation(writer);
-      generateData(writer);
-    } catch (IOException e) {
-      log.error("Error generating SQL file", e);
-      throw new RuntimeException("Failed to generate SQL file", e);
+    log.info("SQL file generated: {}", settings.outputFile());
+    if (settings.format() == Format.LOAD) {
+      log.info("Data files written next to it as {}.<table>.tsv", settings.outputFile());
     }
+    log.info("Digests written to {}", settings.outputFile() + DIGESTS_SUFFIX);
   }
 
-  private void writeSchemaCreationMySQL(BufferedWriter writer) throws IOException {
-    log.info("Writing schema creation statements...");
-    writer.write(
-        """
-            -- Drop existing tables
-            DROP TABLE IF EXISTS transactions;
-            DROP TABLE IF EXISTS loans;
-            DROP TABLE IF EXISTS invoices;
-            DROP TABLE IF EXISTS accounts;
-            DROP TABLE IF EXISTS users;
-
-            -- Create tables with proper relations
-            CREATE TABLE users (
-                id BIGINT PRIMARY KEY,
-                name VARCHAR(255) NOT NULL,
-                email VARCHAR(255) NOT NULL UNIQUE,
-                password VARCHAR(255) NOT NULL,
-                age INT NOT NULL,
-                monthly_income DOUBLE NOT NULL,
-                credit_score INT NOT NULL,
-                role VARCHAR(20) NOT NULL
-            );
-
-            CREATE TABLE accounts (
-                id BIGINT PRIMARY KEY,
-                balance DOUBLE NOT NULL,
-                status VARCHAR(20) NOT NULL,
-                user_id BIGINT NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-
-            CREATE TABLE transactions (
-                id BIGINT PRIMARY KEY,
-                type VARCHAR(20) NOT NULL,
-                amount DOUBLE NOT NULL,
-                source_account_id BIGINT NOT NULL,
-                destination_account_id BIGINT NOT NULL,
-                status VARCHAR(20) NOT NULL,
-                FOREIGN KEY (source_account_id) REFERENCES accounts(id),
-                FOREIGN KEY (destination_account_id) REFERENCES accounts(id)
-            );
-
-            CREATE TABLE invoices (
-                id BIGINT PRIMARY KEY,
-                amount_due DOUBLE NOT NULL,
-                due_date DATE NOT NULL,
-                user_id BIGINT NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-
-            CREATE TABLE loans (
-                id BIGINT PRIMARY KEY,
-                principal DOUBLE NOT NULL,
-                interest_rate DOUBLE NOT NULL,
-                term_months INT NOT NULL,
-                user_id BIGINT NOT NULL,
-                approved BOOLEAN NOT NULL,
-                FOREIGN KEY (user_id) REFERENCES users(id)
-            );
-
-            -- Create indexes for better performance
-            CREATE INDEX idx_user_role ON users(role);
-            CREATE INDEX idx_account_status ON accounts(status);
-            CREATE INDEX idx_account_user ON accounts(user_id);
-            CREATE INDEX idx_transaction_status ON transactions(status);
-            CREATE INDEX idx_transaction_source ON transactions(source_account_id);
-            CREATE INDEX idx_transaction_dest ON transactions(destination_account_id);
-            CREATE INDEX idx_invoice_due_date ON invoices(due_date);
-            CREATE INDEX idx_invoice_user ON invoices(user_id);
-            CREATE INDEX idx_loan_user ON loans(user_id);
-            CREATE INDEX idx_loan_approved ON loans(approved);
-
-            """);
-  }
-
-  private void writeSchemaCreation(BufferedWriter writer) throws IOException {
-    log.info("Writing schema creation statements...");
-    writer.write("""
-        -- Drop existing tables
-        DROP TABLE IF EXISTS transactions;
-        DROP TABLE IF EXISTS loans;
-        DROP TABLE IF EXISTS invoices;
-        DROP TABLE IF EXISTS accounts;
-        DROP TABLE IF EXISTS users;
-
-        -- Create tables with proper relations
-        CREATE TABLE users (
-            id BIGSERIAL PRIMARY KEY,
-            name VARCHAR(255) NOT NULL,
-            email VARCHAR(255) NOT NULL UNIQUE,
-            password VARCHAR(255) NOT NULL,
-            age INTEGER NOT NULL,
-            monthly_income NUMERIC(15,2) NOT NULL,
-            credit_score INTEGER NOT NULL,
-            role VARCHAR(20) NOT NULL
-        );
-
-        CREATE TABLE accounts (
-            id BIGSERIAL PRIMARY KEY,
-            balance NUMERIC(15,2) NOT NULL,
-            status VARCHAR(20) NOT NULL,
-            user_id BIGINT NOT NULL,
-            FOREIGN KEY (user_id) REFERENCES users(id)
-        );
-
-        CREATE TABLE transactions (
-            id BIGSERIAL PRIMARY KEY,
-            type VARCHAR(20) NOT NULL,
-            amount NUMERIC(15,2) NOT NULL,
-            source_account_id BIGINT NOT NULL,
-            destination_account_id BIGINT NOT NULL,
-            status VARCHAR(20) NOT NULL,
-            FOREIGN KEY (source_account_id) REFERENCES accounts(id),
-            FOREIGN KEY (destination_account_id) REFERENCES accounts(id)
-        );
-
-        CREATE TABLE invoices (
-            id BIGSERIAL PRIMARY KEY,
-            amount_due NUMERIC(15,2) NOT NULL,
-            due_date DATE NOT NULL,
-            user_id BIGINT NOT NULL,
-            FOREIGN KEY (user_id) REFERENCES users(id)
-        );
-
-        CREATE TABLE loans (
-            id BIGSERIAL PRIMARY KEY,
-            principal NUMERIC(15,2) NOT NULL,
-            interest_rate NUMERIC(5,2) NOT NULL,
-            term_months INTEGER NOT NULL,
-            user_id BIGINT NOT NULL,
-            approved BOOLEAN NOT NULL,
-            FOREIGN KEY (user_id) REFERENCES users(id)
-        );
-
-        -- Create indexes for better performance
-        CREATE INDEX idx_user_role ON users(role);
-        CREATE INDEX idx_account_status ON accounts(status);
-        CREATE INDEX idx_account_user ON accounts(user_id);
-        CREATE INDEX idx_transaction_status ON transactions(status);
-        CREATE INDEX idx_transaction_source ON transactions(source_account_id);
-        CREATE INDEX idx_transaction_dest ON transactions(destination_account_id);
-        CREATE INDEX idx_invoice_due_date ON invoices(due_date);
-        CREATE INDEX idx_invoice_user ON invoices(user_id);
-        CREATE INDEX idx_loan_user ON loans(user_id);
-        CREATE INDEX idx_loan_approved ON loans(approved);
-    """);
-  }
-
-  private void generateData(BufferedWriter writer) throws IOException {
-    List<Long> userIds = generateUsers(writer);
-    Map<Long, List<Long>> userAccounts = generateAccounts(writer, userIds);
-    generateTransactions(writer, userAccounts);
-    generateInvoices(writer, userIds);
-    generateLoans(writer, userIds);
-  }
-
-  private List<Long> generateUsers(BufferedWriter writer) throws IOException {
-    log.info("Generating {} users...", TOTAL_USERS);
-    List<Long> userIds = new ArrayList<>();
-    StringBuilder batch = new StringBuilder();
-    int count = 0;
-    String password = BCrypt.hashpw("password", BCrypt.gensalt());
-
-    for (long i = 1; i <= TOTAL_USERS; i++) {
-      userIds.add(i);
-
-      String name = faker.name().fullName().replace("'", "''");
-      String email = faker.internet().emailAddress();
-      int age = random.nextInt(18, 80);
-      double monthlyIncome = random.nextDouble() * 150000 + 30000;
-      int creditScore = random.nextInt(300, 850);
-      Role role = Role.values()[random.nextInt(Role.values().length)];
-
-      batch.append(
-          String.format(
-              "INSERT INTO users (id, name, email, password, age, monthly_income, credit_score, role) "
-                  + "VALUES (%d, '%s', '%s', '%s', %d, %.2f, %d, '%s');%s",
-              i, name, email, password, age, monthlyIncome, creditScore, role, NEW_LINE));
-
-      if (++count >= BATCH_SIZE) {
-        writer.write(batch.toString());
-        batch.setLength(0);
-        count = 0;
-        log.info("Generated {} users", i);
+  /** Writes the sample to temporary files that are deleted afterwards. */
+  @Override
+  public TableMetrics sample(DatasetSize size) throws IOException {
+    Path sampleFile = Files.createTempFile("data-generator-sample", ".sql");
+    try {
+      return generateSQLFile(sampleFile, size, true);
+    } finally {
+      Files.deleteIfExists(sampleFile);
+      for (Table table : Table.values()) {
+        Files.deleteIfExists(dataFile(sampleFile, table));
       }
     }
-
-    if (!batch.isEmpty()) {
-      writer.write(batch.toString());
-    }
-
-    writer.write(NEW_LINE);
-    return userIds;
   }
 
-  private Map<Long, List<Long>> generateAccounts(BufferedWriter writer, List<Long> userIds)
-      throws IOException {
-    log.info("Generating accounts for {} users...", userIds.size());
-    Map<Long, List<Long>> userAccounts = new HashMap<>();
-    StringBuilder batch = new StringBuilder();
-    int count = 0;
-    long accountId = 1;
-
-    for (Long userId : userIds) {
-      List<Long> accounts = new ArrayList<>();
-      for (int i = 0; i < ACCOUNTS_PER_USER; i++) {
-        accounts.add(accountId);
-
-        double balance = random.nextDouble() * 50000 + 1000;
-        AccountStatus status =
-            AccountStatus.values()[random.nextInt(AccountStatus.values().length)];
-
-        batch.append(
-            String.format(
-                "INSERT INTO accounts (id, balance, status, user_id) "
-                    + "VALUES (%d, %.2f, '%s', %d);%s",
-                accountId, balance, status, userId, NEW_LINE));
-
-        if (++count >= BATCH_SIZE) {
-          writer.write(batch.toString());
-          batch.setLength(0);
-          count = 0;
-          log.info("Generated {} accounts", accountId);
+  private TableMetrics generateSQLFile(Path outputFile, DatasetSize size, boolean sampling) {
+    SqlDialect dialect = settings.dialect().dialect();
+    List<DirectBufferFileWriter> writers = new ArrayList<>();
+    try {
+      long startTime = System.nanoTime();
+      DirectBufferFileWriter writer = newWriter(outputFile, writers);
+      LongSupplier bytesWritten =
+          () -> writers.stream().mapToLong(DirectBufferFileWriter::bytesWritten).sum();
+      TableMetrics metrics =
+          sampling
+              ? TableMetrics.forSample(size, bytesWritten)
+              : TableMetrics.forRun(size, bytesWritten);
+
+      DigestManifest digests = new DigestManifest(size, settings.digestRangeSize());
+      BankingDataGenerator data = new BankingDataGenerator(size, seed.value());
+
+      try (writer) {
+        log.info("Writing schema creation statements...");
+        writer.write(dialect.createTables());
+        writer.write(NEW_LINE);
+        writer.write(dialect.beginData());
+        if (settings.format() == Format.LOAD) {
+          generateDataFiles(writer, outputFile, dialect, data, metrics, digests, writers);
+        } else {
+          generateData(writer, dialect, data, metrics, digests);
         }
-
-        accountId++;
+        writer.write(dialect.endData());
+        writer.write(NEW_LINE);
+        writer.write(dialect.createIndexes());
+      }
+      if (!sampling) {
+        digests.write(Paths.get(outputFile + DIGESTS_SUFFIX));
       }
-      userAccounts.put(userId, accounts);
-    }
 
-    if (!batch.isEmpty()) {
-      writer.write(batch.toString());
+      log.info(
+          "Stalled on disk I/O for {} of {} (flusher busy {}, fsync {})",
+          TableMetrics.formatDuration(
+              writers.stream().mapToLong(DirectBufferFileWriter::stallNanos).sum() / 1e9),
+          TableMetrics.formatDuration((System.nanoTime() - startTime) / 1e9),
+          TableMetrics.formatDuration(
+              writers.stream().mapToLong(DirectBufferFileWriter::ioNanos).sum() / 1e9),
+          settings.fsync());
+      return metrics;
+    } catch (Exception e) {
+      log.error("Error generating SQL file", e);
+      throw new RuntimeException("Failed to generate SQL file", e);
     }
-
-    writer.write(NEW_LINE);
-    return userAccounts;
   }
 
-  private void generateTransactions(BufferedWriter writer, Map<Long, List<Long>> userAccounts)
+  private DirectBufferFileWriter newWriter(Path file, List<DirectBufferFileWriter> writers)
       throws IOException {
-    log.info("Generating transactions...");
-    StringBuilder batch = new StringBuilder();
-    int count = 0;
-    long transactionId = 1;
-    List<Long> allAccountIds = userAccounts.values().stream().flatMap(List::stream).toList();
-
-    for (List<Long> accounts : userAccounts.values()) {
-      for (Long sourceAccountId : accounts) {
-        for (int i = 0; i < TRANSACTIONS_PER_ACCOUNT; i++) {
-          Long destinationAccountId = allAccountIds.get(random.nextInt(allAccountIds.size()));
-          while (destinationAccountId.equals(sourceAccountId)) {
-            destinationAccountId = allAccountIds.get(random.nextInt(allAccountIds.size()));
-          }
+    DirectBufferFileWriter writer =
+        new DirectBufferFileWriter(
+            file,
+            Math.toIntExact(settings.bufferSize().toBytes()),
+            settings.bufferCount(),
+            settings.fsync());
+    writers.add(writer);
+    return writer;
+  }
 
-          TransactionType type =
-              TransactionType.values()[random.nextInt(TransactionType.values().length)];
-          double amount = random.nextDouble() * 1000 + 10;
-          TransactionStatus status =
-              TransactionStatus.values()[random.nextInt(TransactionStatus.values().length)];
+  private static Path dataFile(Path outputFile, Table table) {
+    return outputFile.resolveSibling(outputFile.getFileName() + "." + table.tableName() + ".tsv");
+  }
 
-          batch.append(
-              String.format(
-                  "INSERT INTO transactions (id, type, amount, source_account_id, destination_account_id, status) "
-                      + "VALUES (%d, '%s', %.2f, %d, %d, '%s');%s",
-                  transactionId++,
-                  type,
-                  amount,
-                  sourceAccountId,
-                  destinationAccountId,
-                  status,
-                  NEW_LINE));
+  private void generateData(
+      Writer writer,
+      SqlDialect dialect,
+      BankingDataGenerator data,
+      TableMetrics metrics,
+      DigestManifest digests)
+      throws Exception {
+    metrics.measure(
+        Table.USERS,
+        () ->
+            writeStatements(
+                writer,
+                Table.USERS,
+                data.users(),
+                digests::add,
+                user ->
+                    String.format(
+                        Locale.ROOT,
+                        "INSERT INTO users (id, name, email, password, age, monthly_income, credit_score, role) "
+                            + "VALUES (%d, %s, %s, %s, %d, %s, %d, %s);%s",
+                        user.id(),
+                        dialect.quote(user.name()),
+                        dialect.quote(user.email()),
+                        dialect.quote(user.password()),
+                        user.age(),
+                        user.monthlyIncome(),
+                        user.creditScore(),
+                        dialect.quote(user.role().name()),
+                        NEW_LINE)));
+    metrics.measure(
+        Table.ACCOUNTS,
+        () ->
+            writeStatements(
+                writer,
+                Table.ACCOUNTS,
+                data.accounts(),
+                digests::add,
+                account ->
+                    String.format(
+                        Locale.ROOT,
+                        "INSERT INTO accounts (id, balance, status, user_id) "
+                            + "VALUES (%d, %s, %s, %d);%s",
+                        account.id(),
+                        account.balance(),
+                        dialect.quote(account.status().name()),
+                        account.userId(),
+                        NEW_LINE)));
+    metrics.measure(
+        Table.TRANSACTIONS,
+        () ->
+            writeStatements(
+                writer,
+                Table.TRANSACTIONS,
+                data.transactions(),
+                digests::add,
+                transaction ->
+                    String.format(
+                        Locale.ROOT,
+                        "INSERT INTO transactions (id, type, amount, source_account_id, destination_account_id, status) "
+                            + "VALUES (%d, %s, %s, %d, %d, %s);%s",
+                        transaction.id(),
+                        dialect.quote(transaction.type().name()),
+                        transaction.amount(),
+                        transaction.sourceAccountId(),
+                        transaction.destinationAccountId(),
+                        dialect.quote(transaction.status().name()),
+                        NEW_LINE)));
+    metrics.measure(
+        Table.INVOICES,
+        () ->
+            writeStatements(
+                writer,
+                Table.INVOICES,
+                data.invoices(),
+                digests::add,
+                invoice ->
+                    String.format(
+                        Locale.ROOT,
+                        "INSERT INTO invoices (id, amount_due, due_date, user_id) "
+                            + "VALUES (%d, %s, '%s', %d);%s",
+                        invoice.id(),
+                        invoice.amountDue(),
+                        invoice.dueDate(),
+                        invoice.userId(),
+                        NEW_LINE)));
+    metrics.measure(
+        Table.LOANS,
+        () ->
+            writeStatements(
+                writer,
+                Table.LOANS,
+                data.loans(),
+                digests::add,
+                loan ->
+                    String.format(
+                        Locale.ROOT,
+                        "INSERT INTO loans (id, principal, interest_rate, term_months, user_id, approved) "
+                            + "VALUES (%d, %s, %s, %d, %d, %b);%s",
+                        loan.id(),
+                        loan.principal(),
+                        loan.interestRate(),
+                        loan.termMonths(),
+                        loan.userId(),
+                        loan.approved(),
+                        NEW_LINE)));
+  }
 
-          if (++count >= BATCH_SIZE) {
-            writer.write(batch.toString());
-            batch.setLength(0);
-            count = 0;
-            log.info("Generated {} transactions", transactionId - 1);
-          }
-        }
-      }
-    }
+  /**
+   * Writes every table to its data file and the bulk load statement for it to the SQL file. The
+   * data files are the same for every dialect.
+   */
+  private void generateDataFiles(
+      Writer writer,
+      Path outputFile,
+      SqlDialect dialect,
+      BankingDataGenerator data,
+      TableMetrics metrics,
+      DigestManifest digests,
+      List<DirectBufferFileWriter> writers)
+      throws Exception {
+    metrics.measure(
+        Table.USERS,
+        () ->
+            loadRows(
+                writer,
+                dialect,
+                dataFile(outputFile, Table.USERS),
+                writers,
+                Table.USERS,
+                data.users(),
+                digests::add,
+                user ->
+                    tsv(
+                        user.id(),
+                        user.name(),
+                        user.email(),
+                        user.password(),
+                        user.age(),
+                        user.monthlyIncome(),
+                        user.creditScore(),
+                        user.role())));
+    metrics.measure(
+        Table.ACCOUNTS,
+        () ->
+            loadRows(
+                writer,
+                dialect,
+                dataFile(outputFile, Table.ACCOUNTS),
+                writers,
+                Table.ACCOUNTS,
+                data.accounts(),
+                digests::add,
+                account ->
+                    tsv(account.id(), account.balance(), account.status(), account.userId())));
+    metrics.measure(
+        Table.TRANSACTIONS,
+        () ->
+            loadRows(
+                writer,
+                dialect,
+                dataFile(outputFile, Table.TRANSACTIONS),
+                writers,
+                Table.TRANSACTIONS,
+                data.transactions(),
+                digests::add,
+                transaction ->
+                    tsv(
+                        transaction.id(),
+                        transaction.type(),
+                        transaction.amount(),
+                        transaction.sourceAccountId(),
+                        transaction.destinationAccountId(),
+                        transaction.status())));
+    metrics.measure(
+        Table.INVOICES,
+        () ->
+            loadRows(
+                writer,
+                dialect,
+                dataFile(outputFile, Table.INVOICES),
+                writers,
+                Table.INVOICES,
+                data.invoices(),
+                digests::add,
+                invoice ->
+                    tsv(invoice.id(), invoice.amountDue(), invoice.dueDate(), invoice.userId())));
+    metrics.measure(
+        Table.LOANS,
+        () ->
+            loadRows(
+                writer,
+                dialect,
+                dataFile(outputFile, Table.LOANS),
+                writers,
+                Table.LOANS,
+                data.loans(),
+                digests::add,
+                loan ->
+                    tsv(
+                        loan.id(),
+                        loan.principal(),
+                        loan.interestRate(),
+                        loan.termMonths(),
+                        loan.userId(),
+                        loan.approved())));
+  }
 
-    if (!batch.isEmpty()) {
-      writer.write(batch.toString());
+  private <T> void loadRows(
+      Writer writer,
+      SqlDialect dialect,
+      Path dataFile,
+      List<DirectBufferFileWriter> writers,
+      Table table,
+      Stream<T> rows,
+      Consumer<T> digest,
+      Function<T, String> line)
+      throws IOException {
+    try (DirectBufferFileWriter data = newWriter(dataFile, writers)) {
+      writeRows(data, table, rows, digest, line);
     }
-
-    writer.write(NEW_LINE);
+    writer.write(dialect.bulkLoad(table, dataFile.toAbsolutePath()));
   }
 
-  private void generateInvoices(BufferedWriter writer, List<Long> userIds) throws IOException {
-    log.info("Generating invoices...");
-    StringBuilder batch = new StringBuilder();
-    int count = 0;
-    long invoiceId = 1;
-
-    for (Long userId : userIds) {
-      for (int i = 0; i < INVOICES_PER_USER; i++) {
-        double amountDue = random.nextDouble() * 5000 + 100;
-        LocalDate dueDate = LocalDate.now().plusDays(random.nextInt(365));
-
-        batch.append(
-            String.format(
-                "INSERT INTO invoices (id, amount_due, due_date, user_id) "
-                    + "VALUES (%d, %.2f, '%s', %d);%s",
-                invoiceId++, amountDue, dueDate, userId, NEW_LINE));
-
-        if (++count >= BATCH_SIZE) {
-          writer.write(batch.toString());
-          batch.setLength(0);
-          count = 0;
-          log.info("Generated {} invoices", invoiceId - 1);
+  /** One line of a data file in the format described by {@link SqlDialect}. */
+  static String tsv(Object... values) {
+    StringBuilder line = new StringBuilder(128);
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        line.append('\t');
+      }
+      Object value = values[i];
+      if (value == null) {
+        line.append("\\N");
+      } else if (value instanceof Boolean b) {
+        line.append(b ? '1' : '0');
+      } else if (value instanceof String || value instanceof Enum) {
+        String text = value.toString();
+        for (int j = 0; j < text.length(); j++) {
+          char c = text.charAt(j);
+          switch (c) {
+            case '\\' -> line.append("\\\\");
+            case '\t' -> line.append("\\t");
+            case '\n' -> line.append("\\n");
+            case '\r' -> line.append("\\r");
+            default -> line.append(c);
+          }
         }
+      } else if (value instanceof BigDecimal decimal) {
+        line.append(decimal.toPlainString());
+      } else {
+        line.append(value);
       }
     }
+    return line.append('\n').toString();
+  }
 
-    if (!batch.isEmpty()) {
-      writer.write(batch.toString());
-    }
-
+  private <T> void writeStatements(
+      Writer writer,
+      Table table,
+      Stream<T> rows,
+      Consumer<T> digest,
+      Function<T, String> statement)
+      throws IOException {
+    writeRows(writer, table, rows, digest, statement);
     writer.write(NEW_LINE);
   }
 
-  private void generateLoans(BufferedWriter writer, List<Long> userIds) throws IOException {
-    log.info("Generating loans...");
+  private <T> void writeRows(
+      Writer writer,
+      Table table,
+      Stream<T> rows,
+      Consumer<T> digest,
+      Function<T, String> render)
+      throws IOException {
+    log.info("Generating {}...", table.tableName());
     StringBuilder batch = new StringBuilder();
     int count = 0;
-    long loanId = 1;
-
-    for (Long userId : userIds) {
-      for (int i = 0; i < LOANS_PER_USER; i++) {
-        double principal = random.nextDouble() * 500000 + 10000;
-        double interestRate = random.nextDouble() * 15 + 5;
-        int termMonths = random.nextInt(12, 360);
-        boolean approved = random.nextBoolean();
+    long total = 0;
 
-        batch.append(
-            String.format(
-                "INSERT INTO loans (id, principal, interest_rate, term_months, user_id, approved) "
-                    + "VALUES (%d, %.2f, %.2f, %d, %d, %b);%s",
-                loanId++, principal, interestRate, termMonths, userId, approved, NEW_LINE));
+    for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+      T row = it.next();
+      batch.append(render.apply(row));
+      digest.accept(row);
+      total++;
 
-        if (++count >= BATCH_SIZE) {
-          writer.write(batch.toString());
-          batch.setLength(0);
-          count = 0;
-          log.info("Generated {} loans", loanId - 1);
-        }
+      if (++count >= BATCH_SIZE) {
+        writer.append(batch);
+        batch.setLength(0);
+        count = 0;
+        log.info("Generated {} {}", total, table.tableName());
       }
     }
 
     if (!batch.isEmpty()) {
-      writer.write(batch.toString());
+      writer.append(batch);
     }
-
-    writer.write(NEW_LINE);
   }
 }
@@ -0,0 +1,76 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+/**
+ * What differs between the databases the SQL file can target: DDL, string literals and the
+ * statements that bulk load a data file.
+ * <p>
+ * Data files are tab separated, one row per {@code \n} terminated line, with columns in the order of
+ * {@link Table#columns()}. Backslash, tab, newline and carriage return are escaped as {@code \\},
+ * {@code \t}, {@code \n} and {@code \r}, booleans are written as {@code 1} and {@code 0} and NULL
+ * as {@code \N}. That is the default input format of both PostgreSQL's {@code COPY} and MySQL's
+ * {@code LOAD DATA}.
+ */
+public interface SqlDialect {
+
+    enum Kind {
+        POSTGRESQL,
+        MYSQL;
+
+        public SqlDialect dialect() {
+            return switch (this) {
+                case POSTGRESQL -> new PostgreSQLDialect();
+                case MYSQL -> new MySQLDialect();
+            };
+        }
+    }
+
+    /**
+     * Drops the tables and creates them with their primary keys, unique and foreign key constraints.
+     */
+    String createTables();
+
+    /**
+     * The secondary indexes, created once the data is in.
+     */
+    String createIndexes();
+
+    /**
+     * A string literal holding {@code value}.
+     */
+    String quote(String value);
+
+    /**
+     * {@code name} as a quoted identifier, safe to use whatever characters it holds.
+     */
+    String quoteIdentifier(String name);
+
+    /**
+     * The columns of {@code table} as a list of quoted identifiers.
+     */
+    default String columns(Table table) {
+        return table.columns().stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Statements preceding the data, e.g. session settings that speed up the load.
+     */
+    default String beginData() {
+        return "";
+    }
+
+    /**
+     * Statements following the data, undoing {@link #beginData()}.
+     */
+    default String endData() {
+        return "";
+    }
+
+    /**
+     * Statements loading {@code dataFile} into {@code table}. The file is read by the client running
+     * the SQL file, so the path must be valid on that machine.
+     */
+    String bulkLoad(Table table, Path dataFile);
+}
@@ -0,0 +1,30 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.util.List;
+
+public enum Table {
+    USERS("users", "id", "name", "email", "password", "age", "monthly_income", "credit_score", "role"),
+    ACCOUNTS("accounts", "id", "balance", "status", "user_id"),
+    TRANSACTIONS("transactions", "id", "type", "amount", "source_account_id", "destination_account_id", "status"),
+    INVOICES("invoices", "id", "amount_due", "due_date", "user_id"),
+    LOANS("loans", "id", "principal", "interest_rate", "term_months", "user_id", "approved");
+
+    private final String tableName;
+    private final List<String> columns;
+
+    Table(String tableName, String... columns) {
+        this.tableName = tableName;
+        this.columns = List.of(columns);
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    /**
+     * All columns in the order rows are written to files, id first.
+     */
+    public List<String> columns() {
+        return columns;
+    }
+}
@@ -0,0 +1,219 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Accumulates {@link DigestRange}s for one table while its rows are generated.
+ * <p>
+ * A row hash is the first 8 bytes of the MD5 of the row's columns, id first, rendered as text and
+ * joined with {@code |}. That is what PostgreSQL computes for
+ * {@code ('x' || left(md5(concat_ws('|', id, ...)), 16))::bit(64)::bigint}, so {@link DataVerifier}
+ * can rebuild the same digests from the loaded tables.
+ * <p>
+ * A row is passed as {@code row(id).column(...)...end()}. The text is encoded straight into a
+ * reused UTF-8 buffer, so hashing a row allocates nothing.
+ */
+public class TableDigest {
+
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final Table table;
+    private final long rows;
+    private final int rangeSize;
+    private final long[] counts;
+    private final long[] hashes;
+    private final MessageDigest md5;
+    private final byte[] digest = new byte[16];
+    private byte[] row = new byte[256];
+    private int length;
+    private long id;
+
+    public TableDigest(Table table, long rows, int rangeSize) {
+        this.table = table;
+        this.rows = rows;
+        this.rangeSize = rangeSize;
+        int ranges = (int) ((rows + rangeSize - 1) / rangeSize);
+        this.counts = new long[ranges];
+        this.hashes = new long[ranges];
+        try {
+            this.md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    public TableDigest row(long id) {
+        this.id = id;
+        length = 0;
+        appendLong(id);
+        return this;
+    }
+
+    public TableDigest column(long value) {
+        separator();
+        appendLong(value);
+        return this;
+    }
+
+    public TableDigest column(String value) {
+        separator();
+        appendUtf8(value);
+        return this;
+    }
+
+    public TableDigest column(Enum<?> value) {
+        return column(value.name());
+    }
+
+    public TableDigest column(boolean value) {
+        separator();
+        append(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * A NUMERIC(_, 2) value given in cents, rendered like {@code numeric::text}.
+     */
+    public TableDigest cents(long cents) {
+        separator();
+        if (cents < 0) {
+            appendByte('-');
+            cents = -cents;
+        }
+        appendLong(cents / 100);
+        appendByte('.');
+        appendByte('0' + (int) (cents % 100 / 10));
+        appendByte('0' + (int) (cents % 10));
+        return this;
+    }
+
+    /**
+     * A date given as days since 1970-01-01, rendered as {@code YYYY-MM-DD}.
+     */
+    public TableDigest date(long epochDay) {
+        separator();
+        // days to civil date, see https://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        appendPadded(year, 4);
+        appendByte('-');
+        appendPadded(month, 2);
+        appendByte('-');
+        appendPadded(day, 2);
+        return this;
+    }
+
+    public void end() {
+        md5.update(row, 0, length);
+        try {
+            md5.digest(digest, 0, digest.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException("MD5 digest failed", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xff);
+        }
+
+        int range = (int) ((id - 1) / rangeSize);
+        counts[range]++;
+        hashes[range] += hash;
+    }
+
+    public List<DigestRange> ranges() {
+        List<DigestRange> ranges = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            long firstId = (long) i * rangeSize + 1;
+            long lastId = Math.min(rows, firstId + rangeSize - 1);
+            ranges.add(new DigestRange(table, firstId, lastId, counts[i], hashes[i]));
+        }
+        return ranges;
+    }
+
+    private void separator() {
+        appendByte('|');
+    }
+
+    private void appendLong(long value) {
+        if (value < 0) {
+            appendByte('-');
+            if (value == Long.MIN_VALUE) {
+                // cannot be negated; print the last digit separately
+                appendLong(-(value / 10));
+                appendByte('8');
+                return;
+            }
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        appendPadded(value, digits);
+    }
+
+    private void appendPadded(long value, int digits) {
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            row[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void appendUtf8(String value) {
+        ensureCapacity(value.length() * 3);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                row[length++] = (byte) c;
+            } else if (c < 0x800) {
+                row[length++] = (byte) (0xc0 | c >> 6);
+                row[length++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                row[length++] = (byte) (0xf0 | codePoint >> 18);
+                row[length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                row[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                row[length++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, encoded as '?' like String.getBytes does
+                row[length++] = '?';
+            } else {
+                row[length++] = (byte) (0xe0 | c >> 12);
+                row[length++] = (byte) (0x80 | c >> 6 & 0x3f);
+                row[length++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, row, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendByte(int b) {
+        ensureCapacity(1);
+        row[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, length + extra));
+        }
+    }
+}
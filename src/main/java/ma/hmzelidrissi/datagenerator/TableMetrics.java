@@ -0,0 +1,128 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects a {@link TableSample} for every table a generator produces.
+ * <p>
+ * In sampling mode it also records how much heap the generator keeps alive between tables. That
+ * forces a full GC at every table boundary, which is only affordable for the small datasets used by
+ * {@code --estimate}.
+ */
+public class TableMetrics {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private static final LongSupplier NO_BYTES = () -> 0;
+
+    private final DatasetSize size;
+    private final LongSupplier bytesWritten;
+    private final boolean trackHeap;
+    private final long heapBaseline;
+    private final Map<Table, TableSample> samples = new EnumMap<>(Table.class);
+    private long peakRetainedHeap;
+
+    private TableMetrics(DatasetSize size, LongSupplier bytesWritten, boolean trackHeap) {
+        this.size = size;
+        this.bytesWritten = bytesWritten;
+        this.trackHeap = trackHeap;
+        this.heapBaseline = trackHeap ? usedHeapAfterGc() : 0;
+    }
+
+    /**
+     * Metrics for a real run. {@code bytesWritten} reports the sink position, or use
+     * {@link #setBytes} once the sizes are known.
+     */
+    public static TableMetrics forRun(DatasetSize size, LongSupplier bytesWritten) {
+        return new TableMetrics(size, bytesWritten, false);
+    }
+
+    public static TableMetrics forRun(DatasetSize size) {
+        return forRun(size, NO_BYTES);
+    }
+
+    public static TableMetrics forSample(DatasetSize size, LongSupplier bytesWritten) {
+        return new TableMetrics(size, bytesWritten, true);
+    }
+
+    public static TableMetrics forSample(DatasetSize size) {
+        return forSample(size, NO_BYTES);
+    }
+
+    public void measure(Table table, Action action) throws Exception {
+        long bytesBefore = bytesWritten.getAsLong();
+        long startTime = System.nanoTime();
+
+        action.run();
+
+        long nanos = System.nanoTime() - startTime;
+        samples.put(table, new TableSample(table, size.rows(table), bytesWritten.getAsLong() - bytesBefore, nanos));
+        if (trackHeap) {
+            peakRetainedHeap = Math.max(peakRetainedHeap, usedHeapAfterGc() - heapBaseline);
+        }
+    }
+
+    public void setBytes(Table table, long bytes) {
+        samples.computeIfPresent(table, (key, sample) -> sample.withBytes(bytes));
+    }
+
+    public DatasetSize size() {
+        return size;
+    }
+
+    public Collection<TableSample> samples() {
+        return samples.values();
+    }
+
+    /**
+     * Largest amount of heap held by the generator at a table boundary, above what was in use
+     * before generation started. Always 0 outside sampling mode.
+     */
+    public long peakRetainedHeap() {
+        return peakRetainedHeap;
+    }
+
+    public long heapBaseline() {
+        return heapBaseline;
+    }
+
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        for (TableSample sample : samples.values()) {
+            lines.add(String.format(Locale.ROOT, "%-12s %,14d rows %12s %12s %,12.0f rows/s",
+                    sample.table().tableName(), sample.rows(), formatBytes(sample.bytes()),
+                    formatDuration(sample.nanos() / 1_000_000_000d), sample.rowsPerSecond()));
+        }
+        return lines;
+    }
+
+    public static String formatBytes(double bytes) {
+        String[] units = {"B", "KB", "MB", "GB", "TB"};
+        int unit = 0;
+        while (bytes >= 1024 && unit < units.length - 1) {
+            bytes /= 1024;
+            unit++;
+        }
+        return String.format(Locale.ROOT, "%.1f %s", bytes, units[unit]);
+    }
+
+    public static String formatDuration(double seconds) {
+        long total = Math.round(seconds);
+        if (total < 60) {
+            return String.format(Locale.ROOT, "%.1f s", seconds);
+        }
+        return String.format(Locale.ROOT, "%dh %02dm %02ds", total / 3600, total / 60 % 60, total % 60);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
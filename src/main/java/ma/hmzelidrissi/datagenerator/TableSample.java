@@ -0,0 +1,20 @@
+package ma.hmzelidrissi.datagenerator;
+
+/**
+ * Measured output of one table: how many rows were produced, how many bytes they took in the sink
+ * and how long it took.
+ */
+public record TableSample(Table table, long rows, long bytes, long nanos) {
+
+    public double bytesPerRow() {
+        return rows == 0 ? 0 : (double) bytes / rows;
+    }
+
+    public double rowsPerSecond() {
+        return nanos == 0 ? 0 : rows * 1_000_000_000d / nanos;
+    }
+
+    public TableSample withBytes(long bytes) {
+        return new TableSample(table, rows, bytes, nanos);
+    }
+}
@@ -0,0 +1,9 @@
+package ma.hmzelidrissi.datagenerator;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the {@code verify} job, configured through the {@code generator.verify.*} properties.
+ */
+public record VerifyJobSettings(Path manifestFile, int threads) {
+}
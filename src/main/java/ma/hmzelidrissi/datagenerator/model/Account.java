@@ -0,0 +1,8 @@
+package ma.hmzelidrissi.datagenerator.model;
+
+import ma.hmzelidrissi.datagenerator.enums.AccountStatus;
+
+import java.math.BigDecimal;
+
+public record Account(long id, BigDecimal balance, AccountStatus status, long userId) {
+}
@@ -0,0 +1,7 @@
+package ma.hmzelidrissi.datagenerator.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record Invoice(long id, BigDecimal amountDue, LocalDate dueDate, long userId) {
+}
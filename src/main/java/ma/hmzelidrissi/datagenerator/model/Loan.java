@@ -0,0 +1,7 @@
+package ma.hmzelidrissi.datagenerator.model;
+
+import java.math.BigDecimal;
+
+public record Loan(long id, BigDecimal principal, BigDecimal interestRate, int termMonths, long userId,
+                   boolean approved) {
+}
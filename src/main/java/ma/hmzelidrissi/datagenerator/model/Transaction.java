@@ -0,0 +1,10 @@
+package ma.hmzelidrissi.datagenerator.model;
+
+import ma.hmzelidrissi.datagenerator.enums.TransactionStatus;
+import ma.hmzelidrissi.datagenerator.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+public record Transaction(long id, TransactionType type, BigDecimal amount, long sourceAccountId,
+                          long destinationAccountId, TransactionStatus status) {
+}
@@ -0,0 +1,9 @@
+package ma.hmzelidrissi.datagenerator.model;
+
+import ma.hmzelidrissi.datagenerator.enums.Role;
+
+import java.math.BigDecimal;
+
+public record User(long id, String name, String email, String password, int age, BigDecimal monthlyIncome,
+                   int creditScore, Role role) {
+}
@@ -0,0 +1,48 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.enums.AccountStatus;
+import ma.hmzelidrissi.datagenerator.model.Account;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public final class AccountCursor extends RowCursor {
+
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    private final Random random;
+    private final int accountsPerUser;
+
+    private long balanceCents;
+    private AccountStatus status;
+    private long userId;
+
+    AccountCursor(long count, Random random, int accountsPerUser) {
+        super(count);
+        this.random = random;
+        this.accountsPerUser = accountsPerUser;
+    }
+
+    @Override
+    void generate(long id) {
+        balanceCents = cents(random.nextDouble() * 50000 + 1000);
+        status = pick(random, STATUSES);
+        userId = (id - 1) / accountsPerUser + 1;
+    }
+
+    public long balanceCents() {
+        return balanceCents;
+    }
+
+    public AccountStatus status() {
+        return status;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public Account toAccount() {
+        return new Account(id(), BigDecimal.valueOf(balanceCents, 2), status, userId);
+    }
+}
@@ -0,0 +1,158 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.DatasetSize;
+import ma.hmzelidrissi.datagenerator.Table;
+import ma.hmzelidrissi.datagenerator.model.*;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates the banking dataset as typed, lazily produced rows, for in-process consumers as well as
+ * for the database and SQL file jobs.
+ * <p>
+ * Ids start at 1 in every table, and relations are derived from them: user {@code u} owns accounts
+ * {@code (u - 1) * accountsPerUser + 1} to {@code u * accountsPerUser}, and likewise for invoices
+ * and loans. No table has to be kept in memory to generate another one. Every table has its own
+ * random source derived from the seed, so each stream can be consumed on its own, in any order or
+ * several times, and yields the same rows for the same seed and date (only the bcrypt salt of the
+ * shared password differs between instances).
+ * <p>
+ * Money is generated in whole cents, so rows carry exactly the values the NUMERIC(_, 2) columns
+ * store for them. Streams and cursors are sequential and not thread-safe. Use one per consumer
+ * thread.
+ */
+public class BankingDataGenerator {
+
+    private static final String PASSWORD = "password";
+
+    private final DatasetSize size;
+    private final long seed;
+    private final LocalDate today;
+    private String hashedPassword;
+
+    public BankingDataGenerator(DatasetSize size, long seed) {
+        this(size, seed, LocalDate.now());
+    }
+
+    /**
+     * @param today the date invoice due dates are counted from
+     */
+    public BankingDataGenerator(DatasetSize size, long seed, LocalDate today) {
+        this.size = size;
+        this.seed = seed;
+        this.today = today;
+    }
+
+    public DatasetSize size() {
+        return size;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public LocalDate today() {
+        return today;
+    }
+
+    public Stream<User> users() {
+        return rows(userCursor(), UserCursor::toUser);
+    }
+
+    public Stream<Account> accounts() {
+        return rows(accountCursor(), AccountCursor::toAccount);
+    }
+
+    /**
+     * Every account is the source of {@code transactionsPerAccount} transactions, each to another
+     * account picked uniformly at random.
+     */
+    public Stream<Transaction> transactions() {
+        return rows(transactionCursor(), TransactionCursor::toTransaction);
+    }
+
+    public Stream<Invoice> invoices() {
+        return rows(invoiceCursor(), InvoiceCursor::toInvoice);
+    }
+
+    public Stream<Loan> loans() {
+        return rows(loanCursor(), LoanCursor::toLoan);
+    }
+
+    /**
+     * The rows of {@link #users()} without allocating a record per row. Like the streams, every
+     * cursor starts over at the first row.
+     */
+    public UserCursor userCursor() {
+        return new UserCursor(size.users(), random(Table.USERS), hashedPassword());
+    }
+
+    public AccountCursor accountCursor() {
+        return new AccountCursor(size.accounts(), random(Table.ACCOUNTS), size.accountsPerUser());
+    }
+
+    public TransactionCursor transactionCursor() {
+        return new TransactionCursor(size.transactions(), random(Table.TRANSACTIONS),
+                size.transactionsPerAccount(), size.accounts());
+    }
+
+    public InvoiceCursor invoiceCursor() {
+        return new InvoiceCursor(size.invoices(), random(Table.INVOICES), size.invoicesPerUser(), today);
+    }
+
+    public LoanCursor loanCursor() {
+        return new LoanCursor(size.loans(), random(Table.LOANS), size.loansPerUser());
+    }
+
+    /**
+     * A publisher that generates the rows of {@code rows} on demand. Every subscriber gets a fresh
+     * stream, so e.g. {@code publisher(generator::users)} can be subscribed to several times.
+     */
+    public static <T> Flow.Publisher<T> publisher(Supplier<Stream<T>> rows) {
+        return new RowPublisher<>(rows);
+    }
+
+    /**
+     * Groups the rows into lists of {@code batchSize} rows, the last one possibly shorter.
+     */
+    public static <T> Iterator<List<T>> batches(Stream<T> rows, int batchSize) {
+        return new RowBatchIterator<>(rows.iterator(), batchSize);
+    }
+
+    private Random random(Table table) {
+        return new Random(seed ^ (0x9E3779B97F4A7C15L * (table.ordinal() + 1)));
+    }
+
+    /**
+     * All users share one password, and bcrypt is deliberately slow, so it is hashed only once.
+     */
+    private synchronized String hashedPassword() {
+        if (hashedPassword == null) {
+            hashedPassword = BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+        }
+        return hashedPassword;
+    }
+
+    private static <C extends RowCursor, T> Stream<T> rows(C cursor, Function<C, T> row) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(cursor.count(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!cursor.next()) {
+                    return false;
+                }
+                action.accept(row.apply(cursor));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+}
@@ -0,0 +1,48 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.model.Invoice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+public final class InvoiceCursor extends RowCursor {
+
+    private final Random random;
+    private final int invoicesPerUser;
+    private final long todayEpochDay;
+
+    private long amountDueCents;
+    private long dueDateEpochDay;
+    private long userId;
+
+    InvoiceCursor(long count, Random random, int invoicesPerUser, LocalDate today) {
+        super(count);
+        this.random = random;
+        this.invoicesPerUser = invoicesPerUser;
+        this.todayEpochDay = today.toEpochDay();
+    }
+
+    @Override
+    void generate(long id) {
+        amountDueCents = cents(random.nextDouble() * 5000 + 100);
+        dueDateEpochDay = todayEpochDay + random.nextInt(365);
+        userId = (id - 1) / invoicesPerUser + 1;
+    }
+
+    public long amountDueCents() {
+        return amountDueCents;
+    }
+
+    public long dueDateEpochDay() {
+        return dueDateEpochDay;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public Invoice toInvoice() {
+        return new Invoice(id(), BigDecimal.valueOf(amountDueCents, 2), LocalDate.ofEpochDay(dueDateEpochDay), userId);
+    }
+}
@@ -0,0 +1,61 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.model.Loan;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public final class LoanCursor extends RowCursor {
+
+    private final Random random;
+    private final int loansPerUser;
+
+    private long principalCents;
+    private long interestRateCents;
+    private int termMonths;
+    private long userId;
+    private boolean approved;
+
+    LoanCursor(long count, Random random, int loansPerUser) {
+        super(count);
+        this.random = random;
+        this.loansPerUser = loansPerUser;
+    }
+
+    @Override
+    void generate(long id) {
+        principalCents = cents(random.nextDouble() * 500000 + 10000);
+        interestRateCents = cents(random.nextDouble() * 15 + 5);
+        termMonths = random.nextInt(12, 360);
+        userId = (id - 1) / loansPerUser + 1;
+        approved = random.nextBoolean();
+    }
+
+    public long principalCents() {
+        return principalCents;
+    }
+
+    /**
+     * The interest rate in hundredths of a percent.
+     */
+    public long interestRateCents() {
+        return interestRateCents;
+    }
+
+    public int termMonths() {
+        return termMonths;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public boolean approved() {
+        return approved;
+    }
+
+    public Loan toLoan() {
+        return new Loan(id(), BigDecimal.valueOf(principalCents, 2), BigDecimal.valueOf(interestRateCents, 2),
+                termMonths, userId, approved);
+    }
+}
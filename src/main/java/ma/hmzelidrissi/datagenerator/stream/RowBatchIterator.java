@@ -0,0 +1,34 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import java.util.*;
+
+class RowBatchIterator<T> implements Iterator<List<T>> {
+
+    private final Iterator<T> rows;
+    private final int batchSize;
+
+    RowBatchIterator(Iterator<T> rows, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        this.rows = rows;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!rows.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && rows.hasNext()) {
+            batch.add(rows.next());
+        }
+        return batch;
+    }
+}
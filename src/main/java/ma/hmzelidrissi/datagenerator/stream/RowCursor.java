@@ -0,0 +1,52 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import java.util.Random;
+
+/**
+ * Allocation-free view of a generated table: {@link #next()} overwrites the current row in place and
+ * its columns are read through primitive accessors. Money is exposed in cents and dates as epoch
+ * days. Use the streams of {@link BankingDataGenerator} when rows must outlive the next call.
+ */
+public abstract class RowCursor {
+
+    private final long count;
+    private long id;
+
+    RowCursor(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Generates the next row.
+     *
+     * @return {@code false} once all rows have been generated
+     */
+    public boolean next() {
+        if (id == count) {
+            return false;
+        }
+        generate(++id);
+        return true;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Number of rows the cursor generates in total.
+     */
+    public long count() {
+        return count;
+    }
+
+    abstract void generate(long id);
+
+    static long cents(double value) {
+        return Math.round(value * 100);
+    }
+
+    static <E> E pick(Random random, E[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,108 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Publishes generated rows as they are requested. Rows are produced on the thread that calls
+ * {@link Flow.Subscription#request(long)}; a request made from within {@code onNext} only adds
+ * demand to the loop already running, so the subscriber is never re-entered.
+ */
+class RowPublisher<T> implements Flow.Publisher<T> {
+
+    private final Supplier<Stream<T>> rows;
+
+    RowPublisher(Supplier<Stream<T>> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new RowSubscription<>(subscriber, rows.get()));
+    }
+
+    private static final class RowSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Stream<T> stream;
+        private final Iterator<T> rows;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean done;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber, Stream<T> stream) {
+            this.subscriber = subscriber;
+            this.stream = stream;
+            this.rows = stream.iterator();
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " rows, must be positive"));
+                return;
+            }
+            if (demand.getAndAccumulate(n, RowSubscription::addCapped) == 0) {
+                emit();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!done) {
+                done = true;
+                stream.close();
+            }
+        }
+
+        private void emit() {
+            long requested = demand.get();
+            while (true) {
+                long emitted = 0;
+                try {
+                    while (emitted < requested && !done) {
+                        if (!rows.hasNext()) {
+                            complete();
+                            return;
+                        }
+                        subscriber.onNext(rows.next());
+                        emitted++;
+                    }
+                    // a subscriber that requested exactly the remaining rows waits for onComplete, not
+                    // for another request; the demand is not yet released, so the iterator is still ours
+                    if (!done && !rows.hasNext()) {
+                        complete();
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                    return;
+                }
+                if (done) {
+                    return;
+                }
+                requested = demand.addAndGet(-emitted);
+                if (requested == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void complete() {
+            cancel();
+            subscriber.onComplete();
+        }
+
+        private static long addCapped(long current, long n) {
+            long sum = current + n;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+}
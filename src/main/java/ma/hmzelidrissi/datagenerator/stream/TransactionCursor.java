@@ -0,0 +1,75 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.enums.TransactionStatus;
+import ma.hmzelidrissi.datagenerator.enums.TransactionType;
+import ma.hmzelidrissi.datagenerator.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Every account is the source of {@code transactionsPerAccount} transactions, each to another
+ * account picked uniformly at random.
+ */
+public final class TransactionCursor extends RowCursor {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final Random random;
+    private final int transactionsPerAccount;
+    private final long accounts;
+
+    private TransactionType type;
+    private long amountCents;
+    private long sourceAccountId;
+    private long destinationAccountId;
+    private TransactionStatus status;
+
+    TransactionCursor(long count, Random random, int transactionsPerAccount, long accounts) {
+        super(count);
+        if (accounts < 2 && count > 0) {
+            throw new IllegalStateException("Transactions need at least 2 accounts, got " + accounts);
+        }
+        this.random = random;
+        this.transactionsPerAccount = transactionsPerAccount;
+        this.accounts = accounts;
+    }
+
+    @Override
+    void generate(long id) {
+        type = pick(random, TYPES);
+        amountCents = cents(random.nextDouble() * 1000 + 10);
+        sourceAccountId = (id - 1) / transactionsPerAccount + 1;
+        destinationAccountId = random.nextLong(1, accounts + 1);
+        while (destinationAccountId == sourceAccountId) {
+            destinationAccountId = random.nextLong(1, accounts + 1);
+        }
+        status = pick(random, STATUSES);
+    }
+
+    public TransactionType type() {
+        return type;
+    }
+
+    public long amountCents() {
+        return amountCents;
+    }
+
+    public long sourceAccountId() {
+        return sourceAccountId;
+    }
+
+    public long destinationAccountId() {
+        return destinationAccountId;
+    }
+
+    public TransactionStatus status() {
+        return status;
+    }
+
+    public Transaction toTransaction() {
+        return new Transaction(id(), type, BigDecimal.valueOf(amountCents, 2), sourceAccountId,
+                destinationAccountId, status);
+    }
+}
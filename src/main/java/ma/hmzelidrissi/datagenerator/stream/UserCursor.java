@@ -0,0 +1,74 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import com.github.javafaker.Faker;
+import ma.hmzelidrissi.datagenerator.enums.Role;
+import ma.hmzelidrissi.datagenerator.model.User;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public final class UserCursor extends RowCursor {
+
+    private static final Role[] ROLES = Role.values();
+
+    private final Random random;
+    private final Faker faker;
+    private final String password;
+
+    private String name;
+    private String email;
+    private int age;
+    private long monthlyIncomeCents;
+    private int creditScore;
+    private Role role;
+
+    UserCursor(long count, Random random, String password) {
+        super(count);
+        this.random = random;
+        this.faker = new Faker(random);
+        this.password = password;
+    }
+
+    @Override
+    void generate(long id) {
+        name = faker.name().fullName();
+        email = faker.internet().emailAddress().replace("@", id + "@");
+        age = random.nextInt(18, 80);
+        monthlyIncomeCents = cents(random.nextDouble() * 150000 + 30000);
+        creditScore = random.nextInt(300, 850);
+        role = pick(random, ROLES);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String email() {
+        return email;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public int age() {
+        return age;
+    }
+
+    public long monthlyIncomeCents() {
+        return monthlyIncomeCents;
+    }
+
+    public int creditScore() {
+        return creditScore;
+    }
+
+    public Role role() {
+        return role;
+    }
+
+    public User toUser() {
+        return new User(id(), name, email, password, age, BigDecimal.valueOf(monthlyIncomeCents, 2), creditScore,
+                role);
+    }
+}
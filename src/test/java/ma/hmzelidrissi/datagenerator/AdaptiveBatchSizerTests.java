@@ -0,0 +1,117 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+import static ma.hmzelidrissi.datagenerator.AdaptiveBatchSizer.REPROBE_WINDOWS;
+import static ma.hmzelidrissi.datagenerator.AdaptiveBatchSizer.WINDOW_BATCHES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class AdaptiveBatchSizerTests {
+
+    private static final Duration TARGET = Duration.ofMillis(500);
+
+    /**
+     * 2 ms per round trip plus 10 µs per row: throughput gains 9% from 1000 to 2000 rows and less
+     * than 5% from 2000 to 4000, so 2000 is the size to settle on.
+     */
+    private static final IntToLongFunction FAST = rows -> 2_000_000L + rows * 10_000L;
+
+    /** 1 ms per row, so only batches of at most 500 rows stay within the target. */
+    private static final IntToLongFunction SLOW = rows -> rows * 1_000_000L;
+
+    private final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1000, 100, 50000, TARGET);
+
+    @Test
+    void startsAtTheInitialSize() {
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(1000);
+    }
+
+    @Test
+    void doublesWhileThroughputImprovesThenSettlesOnTheBest() {
+        runWindows(Table.USERS, 1, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+        runWindows(Table.USERS, 1, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(4000);
+        runWindows(Table.USERS, 1, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+
+        runWindows(Table.USERS, REPROBE_WINDOWS - 1, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+    }
+
+    @Test
+    void halvesWhenLatencyExceedsTheTarget() {
+        runWindows(Table.USERS, 1, SLOW);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(500);
+
+        runWindows(Table.USERS, 5 * REPROBE_WINDOWS, SLOW);
+        assertThat(sizer.batchSize(Table.USERS)).isLessThanOrEqualTo(500);
+    }
+
+    @Test
+    void recoversFromASingleStall() {
+        runWindows(Table.USERS, 3, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+
+        runWindows(Table.USERS, 1, rows -> 2_000_000_000L);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(1000);
+
+        // steady windows at 1000, then a fresh probe: 1000 -> 2000 -> 4000 -> back to 2000
+        runWindows(Table.USERS, REPROBE_WINDOWS + 3, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+    }
+
+    @Test
+    void reprobingMovesUpWhenLargerBatchesBecomeWorthIt() {
+        runWindows(Table.USERS, 3, FAST);
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(2000);
+
+        // round trips got much slower, so larger batches now pay off
+        IntToLongFunction slowRoundTrips = rows -> 50_000_000L + rows * 10_000L;
+        runWindows(Table.USERS, REPROBE_WINDOWS + 10, slowRoundTrips);
+        assertThat(sizer.batchSize(Table.USERS)).isGreaterThan(2000);
+    }
+
+    @Test
+    void staysWithinMinAndMax() {
+        AdaptiveBatchSizer bounded = new AdaptiveBatchSizer(1000, 800, 1500, TARGET);
+
+        runWindows(bounded, Table.USERS, 3, rows -> 1_000_000L + rows);
+        assertThat(bounded.batchSize(Table.USERS)).isEqualTo(1500);
+
+        runWindows(bounded, Table.USERS, 3, SLOW);
+        assertThat(bounded.batchSize(Table.USERS)).isEqualTo(800);
+    }
+
+    @Test
+    void tablesAreSizedIndependently() {
+        runWindows(Table.USERS, 1, SLOW);
+        runWindows(Table.ACCOUNTS, 1, FAST);
+
+        assertThat(sizer.batchSize(Table.USERS)).isEqualTo(500);
+        assertThat(sizer.batchSize(Table.ACCOUNTS)).isEqualTo(2000);
+        assertThat(sizer.summary()).hasSize(2);
+    }
+
+    @Test
+    void rejectsInconsistentSizes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveBatchSizer(100, 0, 1000, TARGET));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveBatchSizer(100, 200, 1000, TARGET));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveBatchSizer(2000, 100, 1000, TARGET));
+    }
+
+    private void runWindows(Table table, int windows, IntToLongFunction nanosPerBatch) {
+        runWindows(sizer, table, windows, nanosPerBatch);
+    }
+
+    private static void runWindows(AdaptiveBatchSizer sizer, Table table, int windows, IntToLongFunction nanosPerBatch) {
+        for (int i = 0; i < windows * WINDOW_BATCHES; i++) {
+            int rows = sizer.batchSize(table);
+            sizer.record(table, rows, nanosPerBatch.applyAsLong(rows));
+        }
+    }
+}
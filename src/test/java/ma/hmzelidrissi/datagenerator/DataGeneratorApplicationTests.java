@@ -3,7 +3,8 @@ package ma.hmzelidrissi.datagenerator;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// no jobs, so the launcher does not touch the database
+@SpringBootTest(properties = "generator.jobs=")
 class DataGeneratorApplicationTests {
 
   @Test
@@ -0,0 +1,38 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVerifierTests {
+
+    private static final DigestRange EXPECTED = new DigestRange(Table.ACCOUNTS, 101, 200, 100, 0x1234);
+
+    @Test
+    void matchingRangeIsNotReported() {
+        List<String> differences = new ArrayList<>();
+        DataVerifier.compare(EXPECTED, new DigestRange(Table.ACCOUNTS, 101, 200, 100, 0x1234), differences);
+
+        assertThat(differences).isEmpty();
+    }
+
+    @Test
+    void differentHashIsReported() {
+        List<String> differences = new ArrayList<>();
+        DataVerifier.compare(EXPECTED, new DigestRange(Table.ACCOUNTS, 101, 200, 100, 0x1235), differences);
+
+        assertThat(differences).containsExactly(
+                "accounts ids 101-200: expected 100 rows (hash 0000000000001234), found 100 rows (hash 0000000000001235)");
+    }
+
+    @Test
+    void differentRowCountIsReported() {
+        List<String> differences = new ArrayList<>();
+        DataVerifier.compare(EXPECTED, new DigestRange(Table.ACCOUNTS, 101, 200, 99, 0x1234), differences);
+
+        assertThat(differences).singleElement().asString().contains("found 99 rows");
+    }
+}
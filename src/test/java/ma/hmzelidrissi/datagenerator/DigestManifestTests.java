@@ -0,0 +1,105 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.stream.BankingDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class DigestManifestTests {
+
+    private static final DatasetSize SIZE = new DatasetSize(30, 2, 3, 2, 1);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void writtenManifestReadsBackTheSameRanges() throws IOException {
+        DigestManifest manifest = new DigestManifest(SIZE, 25);
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, LocalDate.of(2024, 1, 1));
+        data.users().forEach(manifest::add);
+        data.accounts().forEach(manifest::add);
+        data.transactions().forEach(manifest::add);
+        data.invoices().forEach(manifest::add);
+        data.loans().forEach(manifest::add);
+
+        Path file = tempDir.resolve("digests.tsv");
+        manifest.write(file);
+
+        assertThat(DigestManifest.read(file)).containsExactlyElementsOf(ranges(manifest));
+        assertThat(DigestManifest.read(file)).extracting(DigestRange::rows).doesNotContain(0L);
+    }
+
+    @Test
+    void recordsAndCursorsGiveTheSameDigests() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, LocalDate.of(2024, 1, 1));
+        DigestManifest fromRecords = new DigestManifest(SIZE, 25);
+        DigestManifest fromCursors = new DigestManifest(SIZE, 25);
+
+        // both must share the bcrypt hash of the users' password
+        List<String> passwords = new ArrayList<>();
+        data.users().forEach(user -> {
+            fromRecords.add(user);
+            passwords.add(user.password());
+        });
+        var users = data.userCursor();
+        while (users.next()) {
+            fromCursors.add(users);
+        }
+        data.accounts().forEach(fromRecords::add);
+        var accounts = data.accountCursor();
+        while (accounts.next()) {
+            fromCursors.add(accounts);
+        }
+        data.transactions().forEach(fromRecords::add);
+        var transactions = data.transactionCursor();
+        while (transactions.next()) {
+            fromCursors.add(transactions);
+        }
+        data.invoices().forEach(fromRecords::add);
+        var invoices = data.invoiceCursor();
+        while (invoices.next()) {
+            fromCursors.add(invoices);
+        }
+        data.loans().forEach(fromRecords::add);
+        var loans = data.loanCursor();
+        while (loans.next()) {
+            fromCursors.add(loans);
+        }
+
+        assertThat(passwords).containsOnly(passwords.get(0));
+        assertThat(ranges(fromCursors)).containsExactlyElementsOf(ranges(fromRecords));
+    }
+
+    @Test
+    void skipsCommentsAndBlankLines() throws IOException {
+        Path file = tempDir.resolve("digests.tsv");
+        Files.writeString(file, "# table\tfirst_id\tlast_id\trows\thash\n\nusers\t1\t10\t10\t-42\n");
+
+        assertThat(DigestManifest.read(file)).containsExactly(new DigestRange(Table.USERS, 1, 10, 10, -42));
+    }
+
+    @Test
+    void rejectsMalformedLines() throws IOException {
+        Path file = tempDir.resolve("digests.tsv");
+        Files.writeString(file, "users\t1\t10\t10\n");
+
+        assertThatIOException().isThrownBy(() -> DigestManifest.read(file)).withMessageContaining("Malformed");
+    }
+
+    private static List<DigestRange> ranges(DigestManifest manifest) {
+        List<DigestRange> ranges = new ArrayList<>();
+        for (Table table : Table.values()) {
+            ranges.addAll(manifest.table(table).ranges());
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,120 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.DirectBufferFileWriter.FsyncPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DirectBufferFileWriterTests {
+
+    private static final Path DEV_FULL = Paths.get("/dev/full");
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void writesExactlyTheEncodedText(FsyncPolicy fsync) throws IOException {
+        Path file = tempDir.resolve("out.txt");
+        StringBuilder expected = new StringBuilder();
+
+        // 7-byte buffers force multi-byte characters to straddle buffer boundaries
+        try (DirectBufferFileWriter writer = new DirectBufferFileWriter(file, 7, 2, fsync)) {
+            for (int i = 0; i < 500; i++) {
+                String text = i + ":Zoë-東京-😀;";
+                switch (i % 3) {
+                    case 0 -> writer.write(text);
+                    case 1 -> writer.write(text.toCharArray(), 0, text.length());
+                    default -> writer.append(new StringBuilder(text));
+                }
+                expected.append(text);
+            }
+            writer.flush();
+            assertThat(Files.readAllBytes(file)).isEqualTo(expected.toString().getBytes(StandardCharsets.UTF_8));
+
+            writer.write('!');
+            expected.append('!');
+            assertThat(writer.bytesWritten()).isEqualTo(expected.toString().getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        assertThat(Files.readAllBytes(file)).isEqualTo(expected.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void joinsSurrogatePairSplitAcrossWrites() throws IOException {
+        Path file = tempDir.resolve("out.txt");
+
+        try (DirectBufferFileWriter writer = new DirectBufferFileWriter(file, 4, 2, FsyncPolicy.NEVER)) {
+            writer.write("a\uD83D");
+            writer.write("\uDE00b");
+            writer.write("\uD83D");
+            writer.write("");
+            writer.write("\uDE03");
+        }
+
+        assertThat(Files.readString(file)).isEqualTo("a😀b😃");
+    }
+
+    @Test
+    void replacesUnpairedSurrogates() throws IOException {
+        Path file = tempDir.resolve("out.txt");
+
+        try (DirectBufferFileWriter writer = new DirectBufferFileWriter(file, 16, 2, FsyncPolicy.NEVER)) {
+            writer.write("x\uD83D");
+            writer.write("y\uDE00z\uD83D");
+        }
+
+        assertThat(Files.readString(file)).isEqualTo("x?y?z?");
+    }
+
+    @Test
+    void flusherFailureSurfacesOnLaterWrites() throws IOException {
+        assumeTrue(Files.isWritable(DEV_FULL), "needs /dev/full");
+        DirectBufferFileWriter writer = new DirectBufferFileWriter(DEV_FULL, 8, 2, FsyncPolicy.NEVER);
+
+        // a buffer is handed over when the next write overflows it; the second hand-over waits for the
+        // buffer of the failed write, so the third one is guaranteed to see the failure
+        assertThatIOException().isThrownBy(() -> {
+            for (int i = 0; i < 4; i++) {
+                writer.write("12345678");
+            }
+        }).withMessage("Writing to file failed");
+        assertThatIOException().isThrownBy(writer::close);
+    }
+
+    @Test
+    void flusherFailureSurfacesOnClose() throws IOException {
+        assumeTrue(Files.isWritable(DEV_FULL), "needs /dev/full");
+        DirectBufferFileWriter writer = new DirectBufferFileWriter(DEV_FULL, 1024, 2, FsyncPolicy.NEVER);
+        writer.write("less than a buffer");
+
+        assertThatIOException().isThrownBy(writer::close).withMessage("Writing to file failed");
+    }
+
+    @Test
+    void writingAfterCloseFails() throws IOException {
+        DirectBufferFileWriter writer = new DirectBufferFileWriter(tempDir.resolve("out.txt"), 8, 2, FsyncPolicy.NEVER);
+        writer.close();
+        writer.close();
+
+        assertThatIOException().isThrownBy(() -> writer.write("late")).withMessage("Writer is closed");
+    }
+
+    @Test
+    void needsTwoBuffers() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new DirectBufferFileWriter(tempDir.resolve("out.txt"), 8, 1, FsyncPolicy.NEVER));
+    }
+}
@@ -0,0 +1,68 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.stream.BankingDataGenerator;
+import ma.hmzelidrissi.datagenerator.stream.RowCursor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the database job's per-row path (cursor, {@link ColumnBatch}, {@link TableDigest}) allocates
+ * nothing per row once warmed up. Users are left out: their names and emails are new strings.
+ */
+class GenerationAllocationTests {
+
+    private static final DatasetSize SIZE = new DatasetSize(100_000, 2, 3, 2, 2);
+    private static final int BATCH_SIZE = 1000;
+
+    @Test
+    void generatingRowsAllocatesNothingPerRow() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "needs per-thread allocation counters");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "needs per-thread allocation counters");
+
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, LocalDate.of(2024, 1, 1));
+        ColumnBatch.Accounts accounts = new ColumnBatch.Accounts(BATCH_SIZE);
+        ColumnBatch.Transactions transactions = new ColumnBatch.Transactions(BATCH_SIZE);
+        ColumnBatch.Invoices invoices = new ColumnBatch.Invoices(BATCH_SIZE);
+        ColumnBatch.Loans loans = new ColumnBatch.Loans(BATCH_SIZE);
+        DigestManifest digests = new DigestManifest(SIZE, 10_000);
+        long threadId = Thread.currentThread().getId();
+
+        // warm-up passes let the JIT compile and inline the loop before it is measured
+        long rows = 0;
+        for (int pass = 0; pass < 3; pass++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            rows = generate(data.accountCursor(), accounts, digests::add)
+                    + generate(data.transactionCursor(), transactions, digests::add)
+                    + generate(data.invoiceCursor(), invoices, digests::add)
+                    + generate(data.loanCursor(), loans, digests::add);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            if (pass == 2) {
+                // a few KB go to the cursors and their Random, never a byte per row
+                assertThat((double) allocated / rows).as("bytes allocated per row").isLessThan(0.1);
+            }
+        }
+        assertThat(rows).isEqualTo(SIZE.totalRows() - SIZE.users());
+    }
+
+    private static <C extends RowCursor> long generate(C cursor, ColumnBatch<C> batch, Consumer<C> digest) {
+        while (cursor.next()) {
+            batch.add(cursor);
+            digest.accept(cursor);
+            if (batch.size() >= BATCH_SIZE) {
+                batch.clear();
+            }
+        }
+        batch.clear();
+        return cursor.count();
+    }
+}
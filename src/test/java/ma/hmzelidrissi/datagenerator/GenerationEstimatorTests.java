@@ -0,0 +1,68 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GenerationEstimatorTests {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void samplesEveryJobOnceUntimedBeforeTheMeasuredSample() {
+        List<String> samples = new ArrayList<>();
+        GenerationJob file = new GenerationJob() {
+            @Override
+            public void run() {
+            }
+
+            @Override
+            public TableMetrics sample(DatasetSize size) {
+                samples.add("file:" + size.users());
+                return TableMetrics.forRun(size);
+            }
+        };
+        GenerationJob verify = () -> samples.add("verify ran");
+        Map<String, GenerationJob> jobs = new LinkedHashMap<>();
+        jobs.put("file", file);
+        jobs.put("verify", verify);
+
+        new ApplicationContextRunner()
+                .withUserConfiguration(GenerationEstimator.class)
+                .withBean(DatasetSize.class, () -> new DatasetSize(1_000_000, 2, 6, 2, 2))
+                .withPropertyValues("generator.estimate.sample-users=1000")
+                .run(context -> context.getBean(GenerationEstimator.class).estimate(jobs));
+
+        assertThat(samples).containsExactly("file:500", "file:1000");
+    }
+
+    @Test
+    void fixedStateIsNotExtrapolated() {
+        // 300 MB of Faker data and the like, whatever the number of users
+        assertThat(GenerationEstimator.retainedHeap(5_000, 300 * MB, 10_000, 300 * MB, 3_000_000))
+                .isEqualTo(300 * MB);
+    }
+
+    @Test
+    void growthBetweenTheSamplesIsExtrapolatedPerUser() {
+        // 100 MB fixed plus 1 KB per user
+        long smaller = 100 * MB + 5_000 * 1024L;
+        long larger = 100 * MB + 10_000 * 1024L;
+        assertThat(GenerationEstimator.retainedHeap(5_000, smaller, 10_000, larger, 1_000_000))
+                .isCloseTo(100 * MB + 1_000_000 * 1024d, within(1d));
+    }
+
+    @Test
+    void shrinkingBetweenTheSamplesCountsAsNoGrowth() {
+        assertThat(GenerationEstimator.retainedHeap(5_000, 120 * MB, 10_000, 100 * MB, 3_000_000))
+                .isEqualTo(100 * MB);
+        assertThat(GenerationEstimator.retainedHeap(1, 10 * MB, 1, 10 * MB, 3_000_000)).isEqualTo(10 * MB);
+    }
+}
@@ -0,0 +1,95 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class GenerationJobLauncherTests {
+
+    private final List<String> runs = new ArrayList<>();
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(GenerationJobLauncher.class, GenerationEstimator.class)
+            .withBean(DatasetSize.class, () -> new DatasetSize(10, 2, 6, 2, 2))
+            .withBean("db", GenerationJob.class, () -> () -> runs.add("db"))
+            .withBean("file", GenerationJob.class, () -> () -> runs.add("file"))
+            .withBean("verify", GenerationJob.class, () -> () -> runs.add("verify"));
+
+    @Test
+    void runsTheDbJobByDefault() {
+        launch(contextRunner);
+        assertThat(runs).containsExactly("db");
+    }
+
+    @Test
+    void fallsBackToTheLegacyTypeProperty() {
+        launch(contextRunner.withPropertyValues("generator.type=file"));
+        assertThat(runs).containsExactly("file");
+    }
+
+    @Test
+    void legacyTypePropertyStillSelectsTheJobWithTheShippedProperties() {
+        // application.properties must not define generator.jobs, or it would shadow generator.type
+        ApplicationContextRunner shipped = contextRunner.withInitializer(new ConfigDataApplicationContextInitializer());
+
+        launch(shipped);
+        launch(shipped.withPropertyValues("generator.type=file"));
+        assertThat(runs).containsExactly("db", "file");
+    }
+
+    @Test
+    void runsConfiguredJobsInOrder() {
+        launch(contextRunner.withPropertyValues("generator.jobs=file,verify", "generator.type=db"));
+        assertThat(runs).containsExactly("file", "verify");
+    }
+
+    @Test
+    void commandLineArgumentsOverrideConfiguredJobs() {
+        launch(contextRunner.withPropertyValues("generator.jobs=file"), "verify", "--some.option=1", "db");
+        assertThat(runs).containsExactly("verify", "db");
+    }
+
+    @Test
+    void optionArgumentsAloneKeepConfiguredJobs() {
+        launch(contextRunner.withPropertyValues("generator.jobs=file"), "--some.option=1");
+        assertThat(runs).containsExactly("file");
+    }
+
+    @Test
+    void duplicateJobsRunOnceInFirstRequestedOrder() {
+        launch(contextRunner, "file", "db", " FILE ", "db");
+        assertThat(runs).containsExactly("file", "db");
+    }
+
+    @Test
+    void unknownJobIsRejectedBeforeAnyJobRuns() {
+        contextRunner.run(context -> assertThatIllegalArgumentException()
+                .isThrownBy(() -> context.getBean(GenerationJobLauncher.class)
+                        .run(new DefaultApplicationArguments("db", "nope")))
+                .withMessageContaining("Invalid job: nope"));
+        assertThat(runs).isEmpty();
+    }
+
+    @Test
+    void noJobsRunsNothing() {
+        launch(contextRunner.withPropertyValues("generator.jobs="));
+        assertThat(runs).isEmpty();
+    }
+
+    private void launch(ApplicationContextRunner runner, String... args) {
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            context.getBean(GenerationJobLauncher.class).run(new DefaultApplicationArguments(args));
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class GeneratorConfigurationTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withUserConfiguration(GeneratorConfiguration.class);
+
+    @Test
+    void bindsTheShippedProperties() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(DatasetSize.class)).isEqualTo(new DatasetSize(3_000_000, 2, 6, 2, 2));
+            assertThat(context.getBean(DatabaseJobSettings.class)).isEqualTo(new DatabaseJobSettings(
+                    1000, 100, 50_000, Duration.ofMillis(500), Path.of("digests.tsv"), 100_000));
+            assertThat(context.getBean(FileJobSettings.class)).isEqualTo(new FileJobSettings(Path.of("data.sql"),
+                    SqlDialect.Kind.POSTGRESQL, SQLFileGenerator.Format.INSERTS, DataSize.ofMegabytes(8), 3,
+                    DirectBufferFileWriter.FsyncPolicy.ON_CLOSE, 100_000));
+            assertThat(context.getBean(VerifyJobSettings.class))
+                    .isEqualTo(new VerifyJobSettings(Path.of("digests.tsv"), 8));
+        });
+    }
+
+    @Test
+    void bindsOverriddenFileSettings() {
+        contextRunner.withPropertyValues("generator.output.file=/tmp/out.sql", "generator.output.dialect=mysql",
+                "generator.output.format=load", "generator.output.buffer-size=1MB", "generator.output.buffers=4",
+                "generator.output.fsync=every-buffer", "generator.verify.range-size=10").run(context ->
+                assertThat(context.getBean(FileJobSettings.class)).isEqualTo(new FileJobSettings(
+                        Path.of("/tmp/out.sql"), SqlDialect.Kind.MYSQL, SQLFileGenerator.Format.LOAD,
+                        DataSize.ofMegabytes(1), 4, DirectBufferFileWriter.FsyncPolicy.EVERY_BUFFER, 10)));
+    }
+
+    @Test
+    void usesTheConfiguredSeed() {
+        contextRunner.withPropertyValues("generator.seed=42")
+                .run(context -> assertThat(context.getBean(GenerationSeed.class)).isEqualTo(new GenerationSeed(42)));
+    }
+
+    @Test
+    void rejectsInvalidFileSettingsWhenBinding() {
+        contextRunner.withPropertyValues("generator.output.buffers=1")
+                .run(context -> assertThat(context).getFailure().rootCause()
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("generator.output.buffers"));
+    }
+
+    @Test
+    void acceptsBuffersUpTo2GB() {
+        assertThatNoException().isThrownBy(() -> fileSettings(DataSize.ofBytes(Integer.MAX_VALUE), 2));
+    }
+
+    @Test
+    void rejectsBuffersThatDoNotFitAnInt() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> fileSettings(DataSize.ofGigabytes(2), 3))
+                .withMessageContaining("generator.output.buffer-size");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> fileSettings(DataSize.ofBytes(0), 3))
+                .withMessageContaining("generator.output.buffer-size");
+    }
+
+    @Test
+    void rejectsFewerThanTwoBuffers() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> fileSettings(DataSize.ofMegabytes(8), 1))
+                .withMessageContaining("generator.output.buffers");
+    }
+
+    private static FileJobSettings fileSettings(DataSize bufferSize, int bufferCount) {
+        return new FileJobSettings(Path.of("data.sql"), SqlDialect.Kind.POSTGRESQL, SQLFileGenerator.Format.INSERTS,
+                bufferSize, bufferCount, DirectBufferFileWriter.FsyncPolicy.ON_CLOSE, 100_000);
+    }
+}
@@ -0,0 +1,77 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a SQL file written for MySQL against a real MySQL. Needs Docker: {@code ./mvnw -Pcontainers test}.
+ */
+@Tag("containers")
+@Testcontainers(disabledWithoutDocker = true)
+class MySQLContainerTests {
+
+    private static final DatasetSize SIZE = new DatasetSize(200, 2, 3, 2, 2);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withCommand("--local-infile=1");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void loadFormatLoadsEveryRow() throws Exception {
+        assertLoads(SQLFileGenerator.Format.LOAD);
+    }
+
+    @Test
+    void insertsFormatLoadsEveryRow() throws Exception {
+        assertLoads(SQLFileGenerator.Format.INSERTS);
+    }
+
+    private void assertLoads(SQLFileGenerator.Format format) throws Exception {
+        Path sqlFile = tempDir.resolve("data.sql");
+        SQLFileGeneratorTests.fileJob(SIZE, sqlFile, SqlDialect.Kind.MYSQL, format).run();
+
+        // Connector/J only sends local files to LOAD DATA LOCAL INFILE when allowed to
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl() + "?allowLoadLocalInfile=true", MYSQL.getUsername(), MYSQL.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource(sqlFile));
+
+            // the settings are per session, so only the connection that ran the script shows whether
+            // the file restored them
+            try (Statement statement = connection.createStatement();
+                 ResultSet settings = statement.executeQuery("SELECT @@foreign_key_checks, @@unique_checks")) {
+                assertThat(settings.next()).isTrue();
+                assertThat(settings.getInt(1)).as("foreign_key_checks").isEqualTo(1);
+                assertThat(settings.getInt(2)).as("unique_checks").isEqualTo(1);
+            }
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (Table table : Table.values()) {
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + table.tableName(), Long.class))
+                    .as(table.tableName()).isEqualTo(SIZE.rows(table));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM accounts a LEFT JOIN users u ON u.id = a.user_id"
+                + " WHERE u.id IS NULL", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM loans WHERE approved NOT IN (0, 1)", Long.class))
+                .isZero();
+    }
+}
@@ -0,0 +1,95 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Runs the database job against a real PostgreSQL. Needs Docker: {@code ./mvnw -Pcontainers test}.
+ */
+@Tag("containers")
+@Testcontainers(disabledWithoutDocker = true)
+class PostgreSQLContainerTests {
+
+    private static final DatasetSize SIZE = new DatasetSize(200, 2, 3, 2, 2);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    @TempDir
+    private Path tempDir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Properties properties = new Properties();
+        properties.setProperty("reWriteBatchedInserts", "true");
+        // waiting for a lock fails the statement instead of hanging the test
+        properties.setProperty("options", "-c lock_timeout=5s");
+        dataSource.setConnectionProperties(properties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void sampleLeavesLiveTablesUntouchedAndUnlocked() throws Exception {
+        generator(SIZE).run();
+
+        try (Connection reader = dataSource.getConnection(); Statement statement = reader.createStatement()) {
+            // an open reading transaction holds ACCESS SHARE locks that a DROP TABLE would wait for
+            reader.setAutoCommit(false);
+            statement.execute("SELECT count(*) FROM users");
+
+            TableMetrics metrics = generator(SIZE).sample(new DatasetSize(20, 2, 3, 2, 2));
+
+            assertThat(metrics.samples()).hasSize(Table.values().length);
+            reader.commit();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class)).isEqualTo(SIZE.users());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.schemata WHERE schema_name LIKE 'generator_estimate_%'",
+                Long.class)).isZero();
+    }
+
+    @Test
+    void verifierAcceptsTheGeneratedDataAndReportsAChangedRow() throws Exception {
+        generator(SIZE).run();
+        DataVerifier verifier =
+                new DataVerifier(jdbcTemplate, new VerifyJobSettings(tempDir.resolve("digests.tsv"), 4));
+
+        // the Java digests must agree with the SQL expression over every column type
+        verifier.run();
+
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 0.01 WHERE id = 5");
+
+        assertThatIllegalStateException().isThrownBy(verifier::run)
+                .withMessage("Verification failed: 1 of %d ranges differ",
+                        DigestManifest.read(tempDir.resolve("digests.tsv")).size());
+    }
+
+    private PostgreSQLDataGenerator generator(DatasetSize size) {
+        DatabaseJobSettings settings = new DatabaseJobSettings(100, 10, 1000, Duration.ofMillis(500),
+                tempDir.resolve("digests.tsv"), 100);
+        return new PostgreSQLDataGenerator(jdbcTemplate, size, new GenerationSeed(42), settings,
+                new DataSourceTransactionManager(dataSource));
+    }
+}
@@ -0,0 +1,73 @@
+package ma.hmzelidrissi.datagenerator;
+
+import ma.hmzelidrissi.datagenerator.enums.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SQLFileGeneratorTests {
+
+    @Test
+    void tsvEscapesBackslashTabAndLineBreaks() {
+        assertThat(SQLFileGenerator.tsv("a\\b", "c\td", "e\nf", "g\rh", "\r\n"))
+                .isEqualTo("a\\\\b\tc\\td\te\\nf\tg\\rh\t\\r\\n\n");
+    }
+
+    @Test
+    void tsvLeavesOtherTextAlone() {
+        assertThat(SQLFileGenerator.tsv("O'Brien \"Zoë\" 東京 😀", "", "|;,"))
+                .isEqualTo("O'Brien \"Zoë\" 東京 😀\t\t|;,\n");
+    }
+
+    @Test
+    void tsvWritesNullAsBackslashN() {
+        assertThat(SQLFileGenerator.tsv(1L, null, "x")).isEqualTo("1\t\\N\tx\n");
+        // a string that merely reads \N stays a string
+        assertThat(SQLFileGenerator.tsv("\\N")).isEqualTo("\\\\N\n");
+    }
+
+    @Test
+    void tsvWritesBooleansAsDigits() {
+        assertThat(SQLFileGenerator.tsv(true, false)).isEqualTo("1\t0\n");
+    }
+
+    @Test
+    void tsvWritesNumbersDatesAndEnumsAsPlainText() {
+        assertThat(SQLFileGenerator.tsv(-42L, 7, new BigDecimal("1E+3").setScale(2), new BigDecimal("-0.05"),
+                LocalDate.of(2024, 2, 29), AccountStatus.values()[0]))
+                .isEqualTo("-42\t7\t1000.00\t-0.05\t2024-02-29\t" + AccountStatus.values()[0].name() + "\n");
+    }
+
+    @Test
+    void loadFormatWritesOneDataFilePerTableAndLoadsIt(@TempDir Path tempDir) throws Exception {
+        DatasetSize size = new DatasetSize(10, 2, 6, 2, 2);
+        Path sqlFile = tempDir.resolve("data.sql");
+        fileJob(size, sqlFile, SqlDialect.Kind.MYSQL, SQLFileGenerator.Format.LOAD).run();
+
+        String sql = Files.readString(sqlFile);
+        for (Table table : Table.values()) {
+            Path dataFile = tempDir.resolve("data.sql." + table.tableName() + ".tsv");
+            assertThat(Files.readAllLines(dataFile)).hasSize((int) size.rows(table))
+                    .allSatisfy(line -> assertThat(line.split("\t", -1)).hasSize(table.columns().size()));
+            assertThat(sql).contains(new MySQLDialect().bulkLoad(table, dataFile.toAbsolutePath()));
+        }
+        assertThat(sql).doesNotContain("KEYS").doesNotContain("INSERT");
+    }
+
+    /**
+     * The file job writing {@code size} to {@code sqlFile}, with small buffers so they fill and flip.
+     */
+    static SQLFileGenerator fileJob(DatasetSize size, Path sqlFile, SqlDialect.Kind dialect,
+                                    SQLFileGenerator.Format format) {
+        FileJobSettings settings = new FileJobSettings(sqlFile, dialect, format, DataSize.ofKilobytes(4), 2,
+                DirectBufferFileWriter.FsyncPolicy.NEVER, 100);
+        return new SQLFileGenerator(size, new GenerationSeed(42), settings);
+    }
+}
@@ -0,0 +1,60 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlDialectTests {
+
+    private final SqlDialect postgres = new PostgreSQLDialect();
+    private final SqlDialect mysql = new MySQLDialect();
+
+    @Test
+    void postgresQuotesStringsByDoublingQuotes() {
+        assertThat(postgres.quote("O'Brien")).isEqualTo("'O''Brien'");
+        // standard_conforming_strings: a backslash is an ordinary character
+        assertThat(postgres.quote("C:\\data\\it's.tsv")).isEqualTo("'C:\\data\\it''s.tsv'");
+    }
+
+    @Test
+    void mysqlQuotesStringsAndBackslashes() {
+        assertThat(mysql.quote("O'Brien")).isEqualTo("'O''Brien'");
+        assertThat(mysql.quote("C:\\data\\it's.tsv")).isEqualTo("'C:\\\\data\\\\it''s.tsv'");
+    }
+
+    @Test
+    void quotesIdentifiers() {
+        assertThat(postgres.quoteIdentifier("users")).isEqualTo("\"users\"");
+        assertThat(postgres.quoteIdentifier("odd\"name")).isEqualTo("\"odd\"\"name\"");
+        assertThat(mysql.quoteIdentifier("users")).isEqualTo("`users`");
+        assertThat(mysql.quoteIdentifier("odd`name")).isEqualTo("`odd``name`");
+    }
+
+    @Test
+    void mysqlLoadsDataFilesWithLoadDataLocalInfile() {
+        assertThat(mysql.bulkLoad(Table.ACCOUNTS, Path.of("/tmp/it's here/data.sql.accounts.tsv")))
+                .isEqualTo("LOAD DATA LOCAL INFILE '/tmp/it''s here/data.sql.accounts.tsv' INTO TABLE `accounts`"
+                        + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+                        + " LINES TERMINATED BY '\\n' (`id`, `balance`, `status`, `user_id`);\n");
+    }
+
+    @Test
+    void postgresLoadsDataFilesWithCopy() {
+        assertThat(postgres.bulkLoad(Table.ACCOUNTS, Path.of("/tmp/it's here/data.sql.accounts.tsv")))
+                .isEqualTo("\\copy \"accounts\" (\"id\", \"balance\", \"status\", \"user_id\")"
+                        + " FROM '/tmp/it''s here/data.sql.accounts.tsv'\n");
+    }
+
+    @Test
+    void everyTableHasItsColumnsInTheCreateStatement() {
+        for (SqlDialect dialect : new SqlDialect[] {postgres, mysql}) {
+            String ddl = dialect.createTables();
+            for (Table table : Table.values()) {
+                assertThat(ddl).contains("CREATE TABLE " + table.tableName() + " (");
+                table.columns().forEach(column -> assertThat(ddl).contains("    " + column + " "));
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ma.hmzelidrissi.datagenerator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableDigestTests {
+
+    /*
+     * Golden values computed by PostgreSQL 16 with the expression DataVerifier uses:
+     *
+     *   CREATE TABLE g (id bigint, name varchar, amount numeric(15,2), d date, flag boolean, n int);
+     *   INSERT INTO g VALUES (1, 'Zoë O''Brien 東京 😀', 1234.50, DATE '2024-02-29', true, -7),
+     *                        (2, 'ACTIVE', 0.05, DATE '1969-12-31', false, 0),
+     *                        (3, 'a|b\c', -12.30, DATE '2000-01-01', true, 2147483647);
+     *   SELECT ('x' || left(md5(concat_ws('|', id, name, amount, to_char(d, 'YYYY-MM-DD'), flag::text, n)), 16))
+     *          ::bit(64)::bigint FROM g ORDER BY id;
+     */
+    private static final long ROW_1 = 6943014621377351560L;
+    private static final long ROW_2 = -2074538264228790022L;
+    private static final long ROW_3 = -3357868133194333243L;
+    private static final String SUM_OF_ROWS = "1510608223954228295";
+
+    @Test
+    void rowHashesMatchPostgreSQL() {
+        assertThat(hashOf(TableDigestTests::row1)).isEqualTo(ROW_1);
+        assertThat(hashOf(TableDigestTests::row2)).isEqualTo(ROW_2);
+        assertThat(hashOf(TableDigestTests::row3)).isEqualTo(ROW_3);
+    }
+
+    @Test
+    void rangeHashIsTheSumPostgreSQLComputes() {
+        TableDigest digest = new TableDigest(Table.USERS, 3, 10);
+        row3(digest);
+        row1(digest);
+        row2(digest);
+
+        assertThat(digest.ranges()).containsExactly(
+                new DigestRange(Table.USERS, 1, 3, 3, new BigDecimal(SUM_OF_ROWS).toBigInteger().longValue()));
+    }
+
+    @Test
+    void rangeHashWrapsAroundLikeTheVerifierReducesTheNumericSum() {
+        TableDigest digest = new TableDigest(Table.USERS, 2, 10);
+        row1(digest);
+        row1(digest);
+
+        // what DataVerifier does with PostgreSQL's numeric sum of the two hashes
+        long expected = BigDecimal.valueOf(ROW_1).multiply(BigDecimal.valueOf(2)).toBigInteger().longValue();
+        assertThat(digest.ranges().get(0).hash()).isEqualTo(expected);
+    }
+
+    @Test
+    void splitsRowsIntoRangesOfIds() {
+        TableDigest digest = new TableDigest(Table.ACCOUNTS, 25, 10);
+        for (long id = 1; id <= 25; id++) {
+            digest.row(id).column(id * 3).end();
+        }
+
+        List<DigestRange> ranges = digest.ranges();
+        assertThat(ranges).extracting(DigestRange::firstId).containsExactly(1L, 11L, 21L);
+        assertThat(ranges).extracting(DigestRange::lastId).containsExactly(10L, 20L, 25L);
+        assertThat(ranges).extracting(DigestRange::rows).containsExactly(10L, 10L, 5L);
+        assertThat(ranges).extracting(DigestRange::table).containsOnly(Table.ACCOUNTS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "plain ascii", "Zoë Ærøskøbing", "東京都", "€100", "😀 emoji \uD83D\uDE80",
+            "\u007f\u0080\u07ff\u0800\uffff", "\uD800 lone high", "lone low \uDC00", "reversed \uDC00\uD800",
+            "high at end \uD83D", "\uD83D\uD83D\uDE00"})
+    void rendersStringsAsTheirUtf8Bytes(String value) {
+        assertRendersAs(digest -> digest.column(value), value);
+    }
+
+    @Test
+    void growsTheRowBufferForLongStrings() {
+        String value = "ë😀".repeat(500);
+        assertRendersAs(digest -> digest.column(value).column(value), value + "|" + value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 9, 10, 99, 100, -100, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE,
+            Long.MIN_VALUE + 1})
+    void rendersLongsLikeStringValueOf(long value) {
+        assertRendersAs(digest -> digest.column(value), String.valueOf(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 5, 10, 99, 100, 101, 123450, -1, -5, -10, -99, -100, -1230, Long.MAX_VALUE,
+            -Long.MAX_VALUE})
+    void rendersCentsLikeNumericText(long cents) {
+        assertRendersAs(digest -> digest.cents(cents), BigDecimal.valueOf(cents, 2).toPlainString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1970-01-01", "1969-12-31", "1970-01-02", "1600-02-29", "1700-03-01", "1900-02-28",
+            "1900-03-01", "2000-02-29", "2000-03-01", "2023-12-31", "2024-01-01", "2024-02-29", "2100-02-28",
+            "2100-03-01", "0001-01-01", "9999-12-31"})
+    void rendersDatesLikeLocalDate(String date) {
+        long epochDay = LocalDate.parse(date).toEpochDay();
+        assertRendersAs(digest -> digest.date(epochDay), LocalDate.ofEpochDay(epochDay).toString());
+    }
+
+    @Test
+    void rendersEveryDayOfFourCenturiesLikeLocalDate() {
+        // one full 400 year cycle of the Gregorian calendar, either side of the epoch
+        long first = LocalDate.of(1800, 1, 1).toEpochDay();
+        long last = LocalDate.of(2200, 1, 1).toEpochDay();
+        for (long epochDay = first; epochDay < last; epochDay++) {
+            long day = epochDay;
+            assertRendersAs(digest -> digest.date(day), LocalDate.ofEpochDay(day).toString());
+        }
+    }
+
+    @Test
+    void rendersBooleansAndEnumsLikePostgreSQLText() {
+        assertRendersAs(digest -> digest.column(true).column(false).column(Table.LOANS), "true|false|LOANS");
+    }
+
+    /**
+     * A row with id 1 and the given columns must hash like the MD5 of {@code 1|<expected>}.
+     */
+    private static void assertRendersAs(Consumer<TableDigest> columns, String expected) {
+        long actual = hashOf(digest -> {
+            columns.accept(digest.row(1));
+            digest.end();
+        });
+        assertThat(actual).as("hash of %s", expected).isEqualTo(md5Prefix("1|" + expected));
+    }
+
+    private static long md5Prefix(String text) {
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(md5).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void row1(TableDigest digest) {
+        digest.row(1).column("Zoë O'Brien 東京 😀").cents(123450).date(LocalDate.of(2024, 2, 29).toEpochDay())
+                .column(true).column(-7).end();
+    }
+
+    private static void row2(TableDigest digest) {
+        digest.row(2).column("ACTIVE").cents(5).date(-1).column(false).column(0).end();
+    }
+
+    private static void row3(TableDigest digest) {
+        digest.row(3).column("a|b\\c").cents(-1230).date(LocalDate.of(2000, 1, 1).toEpochDay())
+                .column(true).column(Integer.MAX_VALUE).end();
+    }
+
+    private static long hashOf(Consumer<TableDigest> row) {
+        TableDigest digest = new TableDigest(Table.USERS, 3, 1);
+        row.accept(digest);
+        return digest.ranges().stream().mapToLong(DigestRange::hash).sum();
+    }
+}
@@ -0,0 +1,109 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import ma.hmzelidrissi.datagenerator.DatasetSize;
+import ma.hmzelidrissi.datagenerator.model.Account;
+import ma.hmzelidrissi.datagenerator.model.Invoice;
+import ma.hmzelidrissi.datagenerator.model.Loan;
+import ma.hmzelidrissi.datagenerator.model.Transaction;
+import ma.hmzelidrissi.datagenerator.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankingDataGeneratorTests {
+
+    private static final DatasetSize SIZE = new DatasetSize(50, 2, 3, 2, 2);
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void sameSeedGivesTheSameRows() {
+        BankingDataGenerator first = new BankingDataGenerator(SIZE, 42, TODAY);
+        BankingDataGenerator second = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        // bcrypt salts the password hash, so users are compared without it
+        assertThat(withoutPasswords(second.users())).isEqualTo(withoutPasswords(first.users()));
+        assertThat(second.accounts().toList()).isEqualTo(first.accounts().toList());
+        assertThat(second.transactions().toList()).isEqualTo(first.transactions().toList());
+        assertThat(second.invoices().toList()).isEqualTo(first.invoices().toList());
+        assertThat(second.loans().toList()).isEqualTo(first.loans().toList());
+    }
+
+    @Test
+    void streamsStartOverOnEveryCall() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        assertThat(data.transactions().toList()).isEqualTo(data.transactions().toList());
+    }
+
+    @Test
+    void differentSeedGivesDifferentRows() {
+        assertThat(new BankingDataGenerator(SIZE, 1, TODAY).accounts().toList())
+                .isNotEqualTo(new BankingDataGenerator(SIZE, 2, TODAY).accounts().toList());
+    }
+
+    @Test
+    void generatesTheConfiguredNumberOfRowsWithSequentialIds() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        assertThat(data.users().map(User::id).toList()).isEqualTo(ids(SIZE.users()));
+        assertThat(data.accounts().map(Account::id).toList()).isEqualTo(ids(SIZE.accounts()));
+        assertThat(data.transactions().map(Transaction::id).toList()).isEqualTo(ids(SIZE.transactions()));
+        assertThat(data.invoices().map(Invoice::id).toList()).isEqualTo(ids(SIZE.invoices()));
+        assertThat(data.loans().map(Loan::id).toList()).isEqualTo(ids(SIZE.loans()));
+    }
+
+    @Test
+    void foreignKeysPointIntoTheParentIdRanges() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        assertThat(data.accounts()).allSatisfy(account ->
+                assertThat(account.userId()).isBetween(1L, (long) SIZE.users()));
+        assertThat(data.transactions()).allSatisfy(transaction -> {
+            assertThat(transaction.sourceAccountId()).isBetween(1L, SIZE.accounts());
+            assertThat(transaction.destinationAccountId()).isBetween(1L, SIZE.accounts());
+        });
+        assertThat(data.invoices()).allSatisfy(invoice ->
+                assertThat(invoice.userId()).isBetween(1L, (long) SIZE.users()));
+        assertThat(data.loans()).allSatisfy(loan ->
+                assertThat(loan.userId()).isBetween(1L, (long) SIZE.users()));
+    }
+
+    @Test
+    void everyParentGetsItsConfiguredChildren() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        assertThat(data.accounts().collect(groupingBy(Account::userId, counting())).values())
+                .hasSize(SIZE.users()).containsOnly((long) SIZE.accountsPerUser());
+        assertThat(data.transactions().collect(groupingBy(Transaction::sourceAccountId, counting())).values())
+                .hasSize((int) SIZE.accounts()).containsOnly((long) SIZE.transactionsPerAccount());
+    }
+
+    @Test
+    void cursorsGiveTheSameRowsAsTheStreams() {
+        BankingDataGenerator data = new BankingDataGenerator(SIZE, 42, TODAY);
+
+        AccountCursor accounts = data.accountCursor();
+        List<Account> fromCursor = new ArrayList<>();
+        while (accounts.next()) {
+            fromCursor.add(accounts.toAccount());
+        }
+        assertThat(fromCursor).isEqualTo(data.accounts().toList());
+    }
+
+    private static List<User> withoutPasswords(Stream<User> users) {
+        return users.map(u -> new User(u.id(), u.name(), u.email(), null, u.age(), u.monthlyIncome(),
+                u.creditScore(), u.role())).toList();
+    }
+
+    private static List<Long> ids(long count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+}
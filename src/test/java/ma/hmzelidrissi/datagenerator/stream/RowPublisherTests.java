@@ -0,0 +1,215 @@
+package ma.hmzelidrissi.datagenerator.stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowPublisherTests {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, -1, Long.MIN_VALUE})
+    void nonPositiveRequestFailsTheSubscription(long n) {
+        AtomicBoolean closed = new AtomicBoolean();
+        Recorder recorder = subscribe(() -> numbers(10).onClose(() -> closed.set(true)), (s, row) -> { });
+
+        recorder.subscription.request(n);
+        recorder.subscription.request(5);
+
+        assertThat(recorder.errors).singleElement().isInstanceOf(IllegalArgumentException.class);
+        assertThat(recorder.rows).isEmpty();
+        assertThat(recorder.completions).isZero();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void demandSaturatesAtLongMaxValue() {
+        // without the cap 1 + MAX + MAX wraps to a negative demand and the emit loop never ends
+        Recorder recorder = subscribe(() -> numbers(100), (s, row) -> {
+            if (row == 1) {
+                s.request(Long.MAX_VALUE);
+                s.request(Long.MAX_VALUE);
+            }
+        });
+
+        recorder.subscription.request(1);
+
+        assertThat(recorder.rows).containsExactlyElementsOf(numbers(100).toList());
+        assertThat(recorder.completions).isEqualTo(1);
+        assertThat(recorder.errors).isEmpty();
+    }
+
+    @Test
+    void requestFromOnNextDoesNotReenterTheSubscriber() {
+        List<Integer> depths = new ArrayList<>();
+        Recorder recorder = subscribe(() -> numbers(10_000), (s, row) -> {
+            depths.add(Thread.currentThread().getStackTrace().length);
+            s.request(1);
+        });
+
+        recorder.subscription.request(1);
+
+        assertThat(recorder.rows).hasSize(10_000);
+        assertThat(depths).containsOnly(depths.get(0));
+        assertThat(recorder.completions).isEqualTo(1);
+    }
+
+    @Test
+    void emitsNoMoreThanRequested() {
+        Recorder recorder = subscribe(() -> numbers(10), (s, row) -> { });
+
+        recorder.subscription.request(3);
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L);
+
+        recorder.subscription.request(2);
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(recorder.completions).isZero();
+    }
+
+    @Test
+    void cancelMidStreamStopsEmittingAndClosesTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Recorder recorder = subscribe(() -> numbers(100).onClose(() -> closed.set(true)), (s, row) -> {
+            if (row == 3) {
+                s.cancel();
+            }
+        });
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        recorder.subscription.request(10);
+
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L);
+        assertThat(recorder.completions).isZero();
+        assertThat(recorder.errors).isEmpty();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void completesExactlyOnce() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Recorder recorder = subscribe(() -> numbers(3).onClose(() -> closed.set(true)), (s, row) -> { });
+
+        recorder.subscription.request(3);
+
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L);
+        assertThat(recorder.completions).isEqualTo(1);
+        assertThat(closed).isTrue();
+
+        recorder.subscription.request(1);
+        recorder.subscription.cancel();
+
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L);
+        assertThat(recorder.completions).isEqualTo(1);
+    }
+
+    @Test
+    void completesAfterTheLastRowOfEachRequestedChunk() {
+        Recorder recorder = subscribe(() -> numbers(4), (s, row) -> { });
+
+        recorder.subscription.request(2);
+        assertThat(recorder.completions).isZero();
+
+        recorder.subscription.request(2);
+        assertThat(recorder.rows).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(recorder.completions).isEqualTo(1);
+    }
+
+    @Test
+    void completesAnEmptyStream() {
+        Recorder recorder = subscribe(() -> numbers(0), (s, row) -> { });
+
+        recorder.subscription.request(1);
+
+        assertThat(recorder.rows).isEmpty();
+        assertThat(recorder.completions).isEqualTo(1);
+    }
+
+    @Test
+    void failureOfTheStreamIsSignalledOnce() {
+        IllegalStateException failure = new IllegalStateException("broken");
+        Recorder recorder = subscribe(() -> numbers(10).peek(row -> {
+            if (row == 2) {
+                throw failure;
+            }
+        }), (s, row) -> { });
+
+        recorder.subscription.request(5);
+        recorder.subscription.request(5);
+
+        assertThat(recorder.rows).containsExactly(1L);
+        assertThat(recorder.errors).containsExactly(failure);
+        assertThat(recorder.completions).isZero();
+    }
+
+    @Test
+    void everySubscriberGetsAFreshStream() {
+        Flow.Publisher<Long> publisher = BankingDataGenerator.publisher(() -> numbers(3));
+        Recorder first = new Recorder((s, row) -> { });
+        Recorder second = new Recorder((s, row) -> { });
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        first.subscription.request(Long.MAX_VALUE);
+        second.subscription.request(Long.MAX_VALUE);
+
+        assertThat(first.rows).containsExactly(1L, 2L, 3L);
+        assertThat(second.rows).containsExactly(1L, 2L, 3L);
+    }
+
+    private static Stream<Long> numbers(long count) {
+        return LongStream.rangeClosed(1, count).boxed();
+    }
+
+    private static Recorder subscribe(Supplier<Stream<Long>> rows,
+                                      BiConsumer<Flow.Subscription, Long> onNext) {
+        Recorder recorder = new Recorder(onNext);
+        new RowPublisher<>(rows).subscribe(recorder);
+        return recorder;
+    }
+
+    private static final class Recorder implements Flow.Subscriber<Long> {
+
+        private final BiConsumer<Flow.Subscription, Long> onNext;
+        private final List<Long> rows = new ArrayList<>();
+        private final List<Throwable> errors = new ArrayList<>();
+        private int completions;
+        private Flow.Subscription subscription;
+
+        Recorder(BiConsumer<Flow.Subscription, Long> onNext) {
+            this.onNext = onNext;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Long row) {
+            rows.add(row);
+            onNext.accept(subscription, row);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completions++;
+        }
+    }
+}